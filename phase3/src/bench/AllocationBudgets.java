@@ -0,0 +1,295 @@
+package bench;
+
+import board.Board;
+import board.Move;
+import board.MoveList;
+import game.ChessGame;
+import pieces.Piece;
+import pieces.PieceColor;
+import utils.Position;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a corpus of games through a headless ChessGame and measures the
+ * bytes allocated by each call to the board and piece hot paths, failing
+ * when any single call allocates more than its operation's budget. Checking
+ * the worst call rather than the average means a rare allocating path (a
+ * list that grows, a promotion) cannot hide among thousands of clean calls.
+ * Use it as a regression gate: a run that exits with status 1 means a
+ * change added allocation somewhere that is meant to be allocation-free.
+ *
+ * Usage:
+ *   java -cp bin bench.AllocationBudgets [--budget operation=bytes]... [--random games]
+ *
+ * for example "--budget isCheck=0 --budget possibleMoves=192".
+ */
+public class AllocationBudgets {
+    /** Games in UCI notation, one move per space. */
+    private static final String[] GAMES = {
+            // Morphy vs. Duke of Brunswick and Count Isouard, Paris 1858
+            "e2e4 e7e5 g1f3 d7d6 d2d4 c8g4 d4e5 g4f3 d1f3 d6e5 f1c4 g8f6 f3b3 d8e7 b1c3 c7c6 c1g5 b7b5 "
+                    + "c3b5 c6b5 c4b5 b8d7 e1c1 a8d8 d1d7 d8d7 h1d1 e7e6 b5d7 f6d7 b3b8 d7b8 d1d8",
+            // Scholar's mate
+            "e2e4 e7e5 f1c4 b8c6 d1h5 g8f6 h5f7",
+            // Fool's mate
+            "f2f3 e7e5 g2g4 d8h4"
+    };
+
+    private static final int DEFAULT_RANDOM_GAMES = 20;
+    private static final int RANDOM_GAME_PLIES = 160;
+
+    // Most bytes any one call may allocate. possibleMoves returns a new list
+    // and ChessGame.makeMove a new GameStatus; everything else allocates nothing.
+    private static final String[][] DEFAULT_BUDGETS = {
+            { "possibleMoves", "256" },
+            { "isCheck", "0" },
+            { "isCheckmate", "0" },
+            { "movePiece", "0" },
+            { "ChessGame.makeMove", "32" }
+    };
+
+    private final Map<String, Tally> tallies = new LinkedHashMap<>();
+
+    // Bytes reported between two back-to-back counter readings
+    private final long overhead = measureOverhead();
+
+    /**
+     * Constructs a harness with the default budgets.
+     */
+    public AllocationBudgets() {
+        for (String[] budget : DEFAULT_BUDGETS) {
+            tallies.put(budget[0], new Tally(Long.parseLong(budget[1])));
+        }
+    }
+
+    /**
+     * Replaces the budget of one operation.
+     *
+     * @param operation the operation name
+     * @param bytes     the most bytes any one call may allocate
+     */
+    public void setBudget(String operation, long bytes) {
+        Tally tally = tallies.get(operation);
+        if (tally == null) {
+            throw new IllegalArgumentException("Unknown operation: " + operation + " (expected one of "
+                    + tallies.keySet() + ")");
+        }
+        tally.budget = bytes;
+    }
+
+    /**
+     * Replays every game, measuring allocation in every position.
+     *
+     * @param games the games in UCI notation
+     */
+    public void replay(List<String> games) {
+        for (String game : games) {
+            replayGame(game);
+        }
+    }
+
+    /**
+     * Clears all measurements, keeping the budgets.
+     */
+    public void reset() {
+        for (Tally tally : tallies.values()) {
+            tally.calls = 0;
+            tally.bytes = 0;
+            tally.maxBytes = 0;
+        }
+    }
+
+    private void replayGame(String game) {
+        ChessGame chessGame = new ChessGame();
+        Board board = chessGame.getBoard();
+        Tally possibleMoves = tallies.get("possibleMoves");
+        Tally isCheck = tallies.get("isCheck");
+        Tally isCheckmate = tallies.get("isCheckmate");
+        Tally movePiece = tallies.get("movePiece");
+        Tally makeMove = tallies.get("ChessGame.makeMove");
+
+        for (String uci : game.split(" ")) {
+            PieceColor side = board.getSideToMove();
+            Position from = Position.fromNotation(uci.substring(0, 2));
+            Position to = Position.fromNotation(uci.substring(2, 4));
+
+            long mark = Allocations.allocatedBytes();
+            board.isCheck(side);
+            isCheck.record(Allocations.allocatedBytes() - mark - overhead);
+
+            mark = Allocations.allocatedBytes();
+            board.isCheckmate(side);
+            isCheckmate.record(Allocations.allocatedBytes() - mark - overhead);
+
+            long own = board.getColorMask(side);
+            while (own != 0) {
+                int square = Long.numberOfTrailingZeros(own);
+                Piece piece = board.getPiece(square);
+                Position position = Position.of(square);
+                mark = Allocations.allocatedBytes();
+                piece.possibleMoves(board, position);
+                possibleMoves.record(Allocations.allocatedBytes() - mark - overhead);
+                own &= own - 1;
+            }
+
+            mark = Allocations.allocatedBytes();
+            boolean moved = board.movePiece(from, to);
+            movePiece.record(Allocations.allocatedBytes() - mark - overhead);
+            if (!moved) {
+                throw new IllegalStateException("Illegal move in corpus: " + uci + " in " + game);
+            }
+            board.unmakeMove();
+
+            mark = Allocations.allocatedBytes();
+            chessGame.makeMove(from, to);
+            makeMove.record(Allocations.allocatedBytes() - mark - overhead);
+        }
+    }
+
+    /**
+     * Prints one line per operation and checks every call's allocation
+     * against its operation's budget.
+     *
+     * @return true if no call of any operation went over its budget
+     */
+    public boolean report() {
+        boolean passed = true;
+        System.out.printf("%-20s %10s %12s %12s %10s%n", "Operation", "calls", "avg B/op", "max B/op", "budget");
+        for (Map.Entry<String, Tally> entry : tallies.entrySet()) {
+            Tally tally = entry.getValue();
+            double average = tally.calls > 0 ? tally.bytes / (double) tally.calls : 0;
+            boolean ok = tally.maxBytes <= tally.budget;
+            passed &= ok;
+            System.out.printf("%-20s %,10d %,12.1f %,12d %,10d  %s%n", entry.getKey(), tally.calls, average,
+                    tally.maxBytes, tally.budget, ok ? "ok" : "OVER BUDGET");
+        }
+        return passed;
+    }
+
+    /**
+     * Plays seeded random games (always promoting to a queen, as the GUI
+     * does) to widen the corpus beyond the fixed games.
+     *
+     * @param count the number of games
+     * @param seed  the random seed
+     * @return the games in UCI notation
+     */
+    public static List<String> randomGames(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> games = new ArrayList<>(count);
+        MoveList moves = new MoveList();
+        for (int g = 0; g < count; g++) {
+            Board board = new Board();
+            StringBuilder game = new StringBuilder();
+            for (int ply = 0; ply < RANDOM_GAME_PLIES; ply++) {
+                board.legalMoves(moves);
+                int choices = 0;
+                for (int i = 0; i < moves.size(); i++) {
+                    int promotion = Move.promotion(moves.get(i));
+                    if (promotion == 0 || promotion == Move.PROMOTE_QUEEN) {
+                        moves.set(choices++, moves.get(i));
+                    }
+                }
+                if (choices == 0) {
+                    break;
+                }
+                int move = moves.get(random.nextInt(choices));
+                board.makeMove(move);
+                if (game.length() > 0) {
+                    game.append(' ');
+                }
+                game.append(Move.toString(move), 0, 4);
+            }
+            if (game.length() > 0) {
+                games.add(game.toString());
+            }
+        }
+        return games;
+    }
+
+    private static long measureOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long mark = Allocations.allocatedBytes();
+            overhead = Math.min(overhead, Allocations.allocatedBytes() - mark);
+        }
+        return overhead;
+    }
+
+    /**
+     * Running totals and the budget for one operation.
+     */
+    private static class Tally {
+        long budget;
+        long calls;
+        long bytes;
+        long maxBytes;
+
+        Tally(long budget) {
+            this.budget = budget;
+        }
+
+        void record(long allocated) {
+            long value = Math.max(0, allocated);
+            calls++;
+            bytes += value;
+            maxBytes = Math.max(maxBytes, value);
+        }
+    }
+
+    /**
+     * Command-line entry point. Exits with status 1 if a budget is exceeded.
+     *
+     * @param args budgets and the random game count (see the class comment)
+     */
+    public static void main(String[] args) {
+        if (!Allocations.isSupported()) {
+            System.err.println("This JVM cannot report per-thread allocation.");
+            System.exit(2);
+        }
+
+        AllocationBudgets harness = new AllocationBudgets();
+        int randomGames = DEFAULT_RANDOM_GAMES;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--budget") && i + 1 < args.length) {
+                String[] parts = args[++i].split("=");
+                if (parts.length != 2 || !parts[1].matches("\\d+")) {
+                    System.err.println("Budget must be operation=bytes: " + args[i]);
+                    System.exit(2);
+                }
+                try {
+                    harness.setBudget(parts[0], Long.parseLong(parts[1]));
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.exit(2);
+                }
+            } else if (args[i].equals("--random") && i + 1 < args.length) {
+                randomGames = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        List<String> games = new ArrayList<>();
+        for (String game : GAMES) {
+            games.add(game);
+        }
+        games.addAll(randomGames(randomGames, 20251017L));
+
+        // The first pass loads classes and fills lazily created buffers
+        harness.replay(games);
+        harness.reset();
+        harness.replay(games);
+
+        boolean passed = harness.report();
+        System.out.println(passed ? "All operations within budget." : "Allocation budget exceeded.");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
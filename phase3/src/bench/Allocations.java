@@ -0,0 +1,46 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes the current thread has allocated on the heap,
+ * using the HotSpot extension of ThreadMXBean.
+ */
+public final class Allocations {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Checks if the JVM can report per-thread allocation.
+     *
+     * @return true if allocatedBytes returns real counts
+     */
+    public static boolean isSupported() {
+        return THREADS != null && THREADS.isThreadAllocatedMemorySupported()
+                && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Gets the total number of bytes allocated by the current thread so far.
+     * Only differences between two readings are meaningful.
+     *
+     * @return the allocated byte count, or 0 if it is not supported
+     */
+    public static long allocatedBytes() {
+        return isSupported() ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Times small operations in a loop and reports throughput and allocation.
+ * Each benchmark is warmed up first so the JIT has compiled it, then run
+ * for a fixed time. Operations return a value that is folded into a sink,
+ * so the JIT cannot discard the work as dead code.
+ */
+public class BenchmarkRunner {
+    private final long warmupNanos;
+    private final long measureNanos;
+
+    // Results are folded in here so benchmarked work is never dead code
+    private long sink;
+
+    /**
+     * Constructs a runner.
+     *
+     * @param warmupMillis  time spent warming up each benchmark
+     * @param measureMillis time spent measuring each benchmark
+     */
+    public BenchmarkRunner(long warmupMillis, long measureMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000;
+        this.measureNanos = measureMillis * 1_000_000;
+    }
+
+    /**
+     * Prints the column headers for run.
+     */
+    public static void printHeader() {
+        System.out.printf("%-36s %14s %12s %12s %12s%n", "Benchmark", "ops/s", "ns/op", "B/op", "MB/s alloc");
+    }
+
+    /**
+     * Warms up and measures one operation, printing one line of results.
+     *
+     * @param name      the benchmark name
+     * @param operation the operation to time; one call is one op
+     */
+    public void run(String name, LongSupplier operation) {
+        loop(operation, warmupNanos);
+
+        long bytesBefore = Allocations.allocatedBytes();
+        long start = System.nanoTime();
+        long ops = loop(operation, measureNanos);
+        long elapsed = System.nanoTime() - start;
+        long bytes = Allocations.allocatedBytes() - bytesBefore;
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("%-36s %,14.0f %,12.1f %12s %12s%n", name, ops / seconds, elapsed / (double) ops,
+                Allocations.isSupported() ? String.format("%,.1f", bytes / (double) ops) : "n/a",
+                Allocations.isSupported() ? String.format("%,.1f", bytes / seconds / (1024 * 1024)) : "n/a");
+    }
+
+    /**
+     * Calls an operation repeatedly for at least the given time.
+     *
+     * @return the number of calls made
+     */
+    private long loop(LongSupplier operation, long nanos) {
+        long ops = 0;
+        long deadline = System.nanoTime() + nanos;
+        do {
+            // Check the clock only every 64 calls so it does not dominate cheap operations
+            for (int i = 0; i < 64; i++) {
+                sink += operation.getAsLong();
+            }
+            ops += 64;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    /**
+     * Gets the folded results of every operation run so far. Printing it
+     * keeps the benchmarks honest; the value itself means nothing.
+     *
+     * @return the sink value
+     */
+    public long getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,244 @@
+package bench;
+
+import board.Board;
+import board.Move;
+import board.MoveList;
+import game.ChessGame;
+import pieces.Piece;
+import pieces.PieceType;
+import utils.Position;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmarks for the board and piece hot paths: check, checkmate and
+ * stalemate detection, validated moves through Board.movePiece and a
+ * headless ChessGame, and possibleMoves for each piece type. Every benchmark
+ * cycles through the positions in Corpus and reports throughput and bytes
+ * allocated per operation.
+ *
+ * Board caches the legal moves and check status of recent positions, so
+ * checkmate and stalemate are measured twice: "repeated" queries the same
+ * corpus positions over and over and times cache hits, while "fresh" plays
+ * a different legal move before each query (and takes it back after), so
+ * nearly every query misses the cache and generates moves. Board.legalMoves
+ * times move generation alone.
+ *
+ * Usage:
+ *   java -cp bin bench.BoardBenchmarks [--warmup ms] [--time ms] [filter]
+ *
+ * The filter runs only the benchmarks whose name contains it.
+ */
+public class BoardBenchmarks {
+    private final Board[] middlegames = Corpus.boards(Corpus.MIDDLEGAMES);
+    private final Board[] endgames = Corpus.boards(Corpus.ENDGAMES);
+    private final Board[] all = Corpus.boards(Corpus.all());
+
+    private final BenchmarkRunner runner;
+    private final String filter;
+
+    /**
+     * Constructs the benchmark set.
+     *
+     * @param runner the runner to time benchmarks with
+     * @param filter only run benchmarks whose name contains this, or null for all
+     */
+    public BoardBenchmarks(BenchmarkRunner runner, String filter) {
+        this.runner = runner;
+        this.filter = filter;
+    }
+
+    /**
+     * Runs every benchmark that matches the filter.
+     */
+    public void runAll() {
+        BenchmarkRunner.printHeader();
+
+        run("Board.isCheck middlegame", cycle(middlegames, board -> board.isCheck(board.getSideToMove()) ? 1 : 0));
+        run("Board.isCheck endgame", cycle(endgames, board -> board.isCheck(board.getSideToMove()) ? 1 : 0));
+        MoveList legal = new MoveList();
+        run("Board.legalMoves", cycle(all, board -> {
+            board.legalMoves(legal);
+            return legal.size();
+        }));
+        run("Board.isCheckmate repeated", cycle(all, board -> board.isCheckmate(board.getSideToMove()) ? 1 : 0));
+        run("Board.isCheckmate fresh", afterEachMove(all, board -> board.isCheckmate(board.getSideToMove()) ? 1 : 0));
+        run("Board.isStalemate repeated", cycle(all, board -> board.isStalemate(board.getSideToMove()) ? 1 : 0));
+        run("Board.isStalemate fresh", afterEachMove(all, board -> board.isStalemate(board.getSideToMove()) ? 1 : 0));
+        run("Board.movePiece middlegame", movePiece(middlegames));
+        run("Board.movePiece endgame", movePiece(endgames));
+
+        for (PieceType type : PieceType.values()) {
+            run("Piece.possibleMoves " + type.getName(), possibleMoves(type));
+        }
+
+        run("ChessGame.makeMove headless", gameMove(Corpus.MIDDLEGAMES));
+    }
+
+    private void run(String name, LongSupplier operation) {
+        if (filter == null || name.contains(filter)) {
+            runner.run(name, operation);
+        }
+    }
+
+    /**
+     * A query on one board, answered as a number for the runner's sink.
+     */
+    private interface BoardQuery {
+        long apply(Board board);
+    }
+
+    /**
+     * Builds an operation that runs a query on each board in turn.
+     */
+    private static LongSupplier cycle(Board[] boards, BoardQuery query) {
+        int[] next = { 0 };
+        return () -> {
+            Board board = boards[next[0]];
+            next[0] = (next[0] + 1) % boards.length;
+            return query.apply(board);
+        };
+    }
+
+    /**
+     * Builds an operation that plays the next legal move of the next board,
+     * runs a query on the resulting position and takes the move back. Every
+     * call sees a different position from the one before, so per-position
+     * caches do not answer the query.
+     */
+    private static LongSupplier afterEachMove(Board[] boards, BoardQuery query) {
+        List<Board> owners = new ArrayList<>();
+        List<Integer> moves = new ArrayList<>();
+        MoveList legal = new MoveList();
+        for (Board board : boards) {
+            board.legalMoves(legal);
+            for (int i = 0; i < legal.size(); i++) {
+                owners.add(board);
+                moves.add(legal.get(i));
+            }
+        }
+        Board[] ownerArray = owners.toArray(new Board[0]);
+        int[] moveArray = moves.stream().mapToInt(Integer::intValue).toArray();
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 1) % moveArray.length;
+            Board board = ownerArray[i];
+            board.makeMove(moveArray[i]);
+            long result = query.apply(board);
+            board.unmakeMove();
+            return result;
+        };
+    }
+
+    /**
+     * Builds an operation that plays a validated quiet move with
+     * Board.movePiece on each board in turn and takes it back.
+     */
+    private static LongSupplier movePiece(Board[] boards) {
+        int[] moves = new int[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            moves[i] = quietMove(boards[i]);
+        }
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 1) % boards.length;
+            boolean moved = boards[i].movePiece(Move.from(moves[i]), Move.to(moves[i]));
+            boards[i].unmakeMove();
+            return moved ? 1 : 0;
+        };
+    }
+
+    /**
+     * Builds an operation that calls possibleMoves on every piece of one type
+     * in the corpus in turn.
+     */
+    private LongSupplier possibleMoves(PieceType type) {
+        List<Board> boards = new ArrayList<>();
+        List<Piece> pieces = new ArrayList<>();
+        List<Position> squares = new ArrayList<>();
+        for (Board board : all) {
+            for (int square = 0; square < 64; square++) {
+                Piece piece = board.getPiece(square);
+                if (piece != null && piece.getType() == type) {
+                    boards.add(board);
+                    pieces.add(piece);
+                    squares.add(Position.of(square));
+                }
+            }
+        }
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 1) % pieces.size();
+            return pieces.get(i).possibleMoves(boards.get(i), squares.get(i)).size();
+        };
+    }
+
+    /**
+     * Builds an operation that plays a quiet move through a headless
+     * ChessGame on each position in turn and undoes it.
+     */
+    private static LongSupplier gameMove(String[] fens) {
+        ChessGame[] games = new ChessGame[fens.length];
+        Position[] from = new Position[fens.length];
+        Position[] to = new Position[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            games[i] = new ChessGame(new Board(fens[i]));
+            int move = quietMove(games[i].getBoard());
+            from[i] = Position.of(Move.from(move));
+            to[i] = Position.of(Move.to(move));
+        }
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 1) % games.length;
+            boolean moved = games[i].makeMove(from[i], to[i]);
+            games[i].undoMove();
+            return moved ? 1 : 0;
+        };
+    }
+
+    /**
+     * Picks the first legal move that is not a capture, castle or promotion,
+     * so benchmarked moves exercise plain validation and make/unmake.
+     */
+    private static int quietMove(Board board) {
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.flags(move) == Move.QUIET && Move.promotion(move) == 0) {
+                return move;
+            }
+        }
+        throw new IllegalStateException("No quiet move in position");
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args optional --warmup and --time in milliseconds, then a name filter
+     */
+    public static void main(String[] args) {
+        long warmupMillis = 1000;
+        long measureMillis = 2000;
+        String filter = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--warmup") && i + 1 < args.length) {
+                warmupMillis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--time") && i + 1 < args.length) {
+                measureMillis = Long.parseLong(args[++i]);
+            } else {
+                filter = args[i];
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measureMillis);
+        new BoardBenchmarks(runner, filter).runAll();
+        System.out.println("(sink " + runner.getSink() + ")");
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import board.Board;
+
+/**
+ * Fixed positions the benchmarks and allocation checks run over, so numbers
+ * from different runs and different commits are comparable.
+ */
+public final class Corpus {
+    /** Positions from the opening and middlegame, with most pieces still on the board. */
+    public static final String[] MIDDLEGAMES = {
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 9"
+    };
+
+    /** Positions with few pieces left. */
+    public static final String[] ENDGAMES = {
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/5pk1/6p1/8/3R4/6P1/5PK1/3r4 w - - 0 40",
+            "8/8/4k3/8/2K5/8/3P4/8 w - - 0 1",
+            "6k1/5ppp/8/8/8/8/q4PPP/3Q2K1 b - - 0 30"
+    };
+
+    /** Finished games: a checkmate and a stalemate. */
+    public static final String[] FINISHED = {
+            "r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4",
+            "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"
+    };
+
+    private Corpus() {
+    }
+
+    /**
+     * Gets every position in the corpus.
+     *
+     * @return the FEN strings, middlegames first
+     */
+    public static String[] all() {
+        String[] all = new String[MIDDLEGAMES.length + ENDGAMES.length + FINISHED.length];
+        System.arraycopy(MIDDLEGAMES, 0, all, 0, MIDDLEGAMES.length);
+        System.arraycopy(ENDGAMES, 0, all, MIDDLEGAMES.length, ENDGAMES.length);
+        System.arraycopy(FINISHED, 0, all, MIDDLEGAMES.length + ENDGAMES.length, FINISHED.length);
+        return all;
+    }
+
+    /**
+     * Loads a set of positions.
+     *
+     * @param fens the FEN strings
+     * @return one board per position
+     */
+    public static Board[] boards(String[] fens) {
+        Board[] boards = new Board[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            boards[i] = new Board(fens[i]);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,323 @@
+package board;
+
+/**
+ * Precomputed attack tables for every piece type.
+ * Knight, king and pawn attacks are plain 64-entry lookups. Rook and bishop
+ * attacks use magic bitboards: the blockers on a slider's relevant squares are
+ * multiplied by a per-square magic constant and shifted down to an index into
+ * a table filled once at class load. The magic constants were found offline,
+ * so startup only has to fill the tables, not search for magics.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MAGICS = {
+            0x20800010228A4000L, 0x6040200010004000L, 0x010020004100100AL, 0x0080080080100005L,
+            0x1480020400800800L, 0x0100020400080100L, 0x0680120009000880L, 0xA080002051000080L,
+            0x8000800080400025L, 0x5442401004402000L, 0x2051001020004100L, 0x0000800800100080L,
+            0x1202800401080080L, 0x0102801401800200L, 0xA20A005928440A00L, 0x918100104200A100L,
+            0x4805808002684000L, 0x0240010020408101L, 0x0300818020011000L, 0x090202001040200CL,
+            0x0008018008800401L, 0x0014008004020080L, 0x0000040010020168L, 0x0008020020810044L,
+            0x1880004040002001L, 0x2320100440004028L, 0x0020208200120049L, 0x0013100080080480L,
+            0x1000040080080080L, 0x0001100801200440L, 0x8481000100040200L, 0xE008088200011044L,
+            0x2820004000808000L, 0x0000400080802001L, 0x2081061041002000L, 0x0000100080800800L,
+            0x0004000801010010L, 0x8000041008012040L, 0x0002002442000881L, 0x1000684412000681L,
+            0x5040004020808000L, 0x2340008020048044L, 0x000D032000110040L, 0x1125001000210009L,
+            0x0201001008010004L, 0x0006003004920008L, 0x4000010248840010L, 0x0040006100820014L,
+            0x0800420021008200L, 0x204000208D104100L, 0x8400100080200080L, 0x088A004120081200L,
+            0x3030100500080100L, 0x0011840080820080L, 0x4001000402000100L, 0x004044408C011200L,
+            0x0042004411008422L, 0x0885A01202804102L, 0x0080092000150041L, 0x9404081000210105L,
+            0x8042001020080402L, 0x4032004108445002L, 0x2200213020820804L, 0x0000004401043082L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0C40815101010103L, 0x0020544100410040L, 0x10080089020E0480L, 0x600804810A028001L,
+            0x0902021004C28110L, 0x8089100804000840L, 0x00040088080A9A00L, 0x000A240200B00800L,
+            0x40800A2044041040L, 0x000020022226002CL, 0x0000080214003000L, 0x0C02082E00408000L,
+            0x4000020210011000L, 0x0100022820091000L, 0x280C404908094000L, 0x1102008201500200L,
+            0x6020408A48300080L, 0x0004000810009200L, 0x0008095000401220L, 0x20008108020040E0L,
+            0x001C000080A00000L, 0x1020200110101004L, 0x0C0854028A101000L, 0x0280400084481840L,
+            0x008210090811D000L, 0x4024844020112C01L, 0x0004010202080100L, 0x0001080001004300L,
+            0x0001010009444004L, 0x0010011041880802L, 0x044A189102081141L, 0xC0040540210104C0L,
+            0x020130C000080820L, 0x0081042218201840L, 0x0840108200100410L, 0x0402020082080081L,
+            0x1000900880040020L, 0x2060048880050040L, 0x088250A1000A0800L, 0x0024068020508C00L,
+            0x20080210302A6582L, 0x401A1201040D2010L, 0x0840420240404400L, 0x100220C05040C600L,
+            0x040E040408200400L, 0x280420A08A010100L, 0x1002081200A04400L, 0x0488280091200581L,
+            0x2604010402205080L, 0x0484410808020009L, 0x0001004200908000L, 0x7801130042020800L,
+            0x2248004005010000L, 0x9001280808083004L, 0x4210840104040000L, 0x02340104210A0000L,
+            0x412A060080841002L, 0x0510010101112125L, 0x400E400044044414L, 0x0000894881048800L,
+            0x4282000010020220L, 0x0000012004410200L, 0x8038080821040406L, 0x8020080208202024L
+    };
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = knightMask(square);
+            KING[square] = kingMask(square);
+            PAWN[0][square] = pawnMask(square, 0);
+            PAWN[1][square] = pawnMask(square, 1);
+            initSlider(square, true);
+            initSlider(square, false);
+            initLines(square);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * Gets the squares a knight attacks.
+     *
+     * @param square the knight's square
+     * @return the attacked squares
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * Gets the squares a king attacks.
+     *
+     * @param square the king's square
+     * @return the attacked squares
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Gets the squares a pawn attacks diagonally.
+     * White pawns move toward row 0, black pawns toward row 7.
+     *
+     * @param square the pawn's square
+     * @param color  0 for a white pawn, 1 for a black pawn
+     * @return the attacked squares
+     */
+    public static long pawn(int square, int color) {
+        return PAWN[color][square];
+    }
+
+    /**
+     * Gets the squares a rook attacks, each ray ending at the first blocker.
+     *
+     * @param square   the rook's square
+     * @param occupied all occupied squares
+     * @return the attacked squares
+     */
+    public static long rook(int square, long occupied) {
+        long blockers = occupied & ROOK_MASKS[square];
+        return ROOK_TABLE[square][(int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares a bishop attacks, each ray ending at the first blocker.
+     *
+     * @param square   the bishop's square
+     * @param occupied all occupied squares
+     * @return the attacked squares
+     */
+    public static long bishop(int square, long occupied) {
+        long blockers = occupied & BISHOP_MASKS[square];
+        return BISHOP_TABLE[square][(int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares a queen attacks (rook and bishop lines combined).
+     *
+     * @param square   the queen's square
+     * @param occupied all occupied squares
+     * @return the attacked squares
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Gets the squares strictly between two squares on a shared rank, file or
+     * diagonal.
+     *
+     * @param from one end square
+     * @param to   the other end square
+     * @return the squares in between, or 0 if the squares are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Gets the whole rank, file or diagonal running through two squares,
+     * edge to edge.
+     *
+     * @param a one square
+     * @param b another square
+     * @return the full line, or 0 if the squares are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Fills the between and line tables for every square aligned with one
+     * square by walking each of the eight directions.
+     *
+     * @param square the starting square
+     */
+    private static void initLines(int square) {
+        int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 },
+                { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+        for (int[] d : directions) {
+            long full = ray(square, 0L, d[0], d[1]) | ray(square, 0L, -d[0], -d[1])
+                    | Bitboards.bit(square);
+            long path = 0L;
+            int row = (square >>> 3) + d[0];
+            int col = (square & 7) + d[1];
+            while (inBoard(row, col)) {
+                int target = Bitboards.square(row, col);
+                BETWEEN[square][target] = path;
+                LINE[square][target] = full;
+                path |= Bitboards.bit(target);
+                row += d[0];
+                col += d[1];
+            }
+        }
+    }
+
+    /**
+     * Fills the magic lookup table of one slider on one square by enumerating
+     * every subset of its relevant blocker squares.
+     *
+     * @param square the slider's square
+     * @param rook   true for rook lines, false for bishop diagonals
+     */
+    private static void initSlider(int square, boolean rook) {
+        long mask = relevantMask(square, rook);
+        int bits = Long.bitCount(mask);
+        long magic = rook ? ROOK_MAGICS[square] : BISHOP_MAGICS[square];
+        long[] table = new long[1 << bits];
+
+        // Carry-rippler walk over all subsets of the mask
+        long blockers = 0L;
+        do {
+            table[(int) ((blockers * magic) >>> (64 - bits))] = slidingAttacks(square, blockers, rook);
+            blockers = (blockers - mask) & mask;
+        } while (blockers != 0);
+
+        if (rook) {
+            ROOK_MASKS[square] = mask;
+            ROOK_SHIFTS[square] = 64 - bits;
+            ROOK_TABLE[square] = table;
+        } else {
+            BISHOP_MASKS[square] = mask;
+            BISHOP_SHIFTS[square] = 64 - bits;
+            BISHOP_TABLE[square] = table;
+        }
+    }
+
+    /**
+     * Gets the squares whose occupancy can change a slider's attacks.
+     * The last square of each ray is left out since a blocker there changes
+     * nothing.
+     *
+     * @param square the slider's square
+     * @param rook   true for rook lines, false for bishop diagonals
+     * @return the relevant blocker squares
+     */
+    private static long relevantMask(int square, boolean rook) {
+        long mask = 0L;
+        int[][] directions = rook
+                ? new int[][] { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } }
+                : new int[][] { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+        for (int[] d : directions) {
+            int row = (square >>> 3) + d[0];
+            int col = (square & 7) + d[1];
+            while (inBoard(row + d[0], col + d[1]) && inBoard(row, col)) {
+                mask |= Bitboards.bit(Bitboards.square(row, col));
+                row += d[0];
+                col += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Computes slider attacks by walking each ray. Only used to fill the tables.
+     *
+     * @param square   the slider's square
+     * @param occupied the blockers
+     * @param rook     true for rook lines, false for bishop diagonals
+     * @return the attacked squares
+     */
+    private static long slidingAttacks(int square, long occupied, boolean rook) {
+        if (rook) {
+            return ray(square, occupied, -1, 0) | ray(square, occupied, 1, 0)
+                    | ray(square, occupied, 0, -1) | ray(square, occupied, 0, 1);
+        }
+        return ray(square, occupied, -1, -1) | ray(square, occupied, -1, 1)
+                | ray(square, occupied, 1, -1) | ray(square, occupied, 1, 1);
+    }
+
+    /**
+     * Walks one ray from a square, including the first blocker it reaches.
+     *
+     * @param square   the starting square
+     * @param occupied the blockers
+     * @param dRow     the row step
+     * @param dCol     the column step
+     * @return the squares along the ray
+     */
+    private static long ray(int square, long occupied, int dRow, int dCol) {
+        long attacks = 0L;
+        int row = (square >>> 3) + dRow;
+        int col = (square & 7) + dCol;
+        while (inBoard(row, col)) {
+            long b = Bitboards.bit(Bitboards.square(row, col));
+            attacks |= b;
+            if ((occupied & b) != 0) {
+                break;
+            }
+            row += dRow;
+            col += dCol;
+        }
+        return attacks;
+    }
+
+    private static long knightMask(int square) {
+        long b = Bitboards.bit(square);
+        return ((b << 17) & ~Bitboards.FILE_A) | ((b << 15) & ~Bitboards.FILE_H)
+                | ((b << 10) & ~(Bitboards.FILE_A | Bitboards.FILE_B))
+                | ((b << 6) & ~(Bitboards.FILE_G | Bitboards.FILE_H))
+                | ((b >>> 17) & ~Bitboards.FILE_H) | ((b >>> 15) & ~Bitboards.FILE_A)
+                | ((b >>> 10) & ~(Bitboards.FILE_G | Bitboards.FILE_H))
+                | ((b >>> 6) & ~(Bitboards.FILE_A | Bitboards.FILE_B));
+    }
+
+    private static long kingMask(int square) {
+        long b = Bitboards.bit(square);
+        return (b << 8) | (b >>> 8)
+                | ((b << 1) & ~Bitboards.FILE_A) | ((b >>> 1) & ~Bitboards.FILE_H)
+                | ((b << 9) & ~Bitboards.FILE_A) | ((b << 7) & ~Bitboards.FILE_H)
+                | ((b >>> 7) & ~Bitboards.FILE_A) | ((b >>> 9) & ~Bitboards.FILE_H);
+    }
+
+    private static long pawnMask(int square, int color) {
+        long b = Bitboards.bit(square);
+        if (color == 0) {
+            return ((b >>> 7) & ~Bitboards.FILE_A) | ((b >>> 9) & ~Bitboards.FILE_H);
+        }
+        return ((b << 9) & ~Bitboards.FILE_A) | ((b << 7) & ~Bitboards.FILE_H);
+    }
+
+    private static boolean inBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+}
@@ -0,0 +1,41 @@
+package board;
+
+/**
+ * Bitboard helpers used by the board's mask-based queries.
+ * A bitboard is a 64-bit mask with one bit per square. Squares are indexed
+ * 0..63 as row * 8 + col, matching the row/col layout of Position
+ * (row 0 is rank 8, col 0 is file A).
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+
+    // Squares where row + col is odd (a1, b8, ...)
+    public static final long DARK_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private Bitboards() {
+    }
+
+    /**
+     * Converts a row and column to a square index.
+     *
+     * @param row the board row (0-7)
+     * @param col the board column (0-7)
+     * @return the square index (0-63)
+     */
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    /**
+     * Gets the single-bit mask for a square.
+     *
+     * @param square the square index (0-63)
+     * @return the mask with only that square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+}
@@ -3,6 +3,7 @@ package board;
 import pieces.*;
 import utils.Position;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -12,22 +13,270 @@ import java.util.List;
  * and pawn promotion.
  */
 public class Board {
-    private Piece[][] squares;
+    /** Index of the first black piece kind in piece masks: kind = color ordinal * BLACK_OFFSET + type ordinal. */
+    public static final int BLACK_OFFSET = 6;
+
+    // Piece-kind offsets into pieceMasks; black kinds start at BLACK_OFFSET
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    // Every piece but one king can be captured, so the captured list never has to grow
+    private static final int MAX_CAPTURES = 31;
+
+    // Cached because values() copies the array on every call
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Piece[] squares;
     private List<Piece> capturedPieces;
-    private boolean whiteKingMoved = false;
-    private boolean blackKingMoved = false;
-    private boolean whiteRookKingSideMoved = false;
-    private boolean whiteRookQueenSideMoved = false;
-    private boolean blackRookKingSideMoved = false;
-    private boolean blackRookQueenSideMoved = false;
+
+    // One mask per piece kind and color, plus occupancy masks kept in sync with squares
+    private final long[] pieceMasks = new long[12];
+    private final long[] colorMasks = new long[2];
+    private long occupied;
+
+    // Square of each color's king (-1 when absent), updated whenever a king is placed or removed
+    private final int[] kingSquares = { -1, -1 };
+
+    // Reused by the check and mate queries so they never allocate move lists
+    private final MoveList scratchMoves = new MoveList();
+
+    // Receives capture, promotion and rejection events from movePiece
+    private BoardListener listener = BoardListener.NONE;
+
+    // Legal moves and check status of recently queried positions
+    private final LegalMoveCache statusCache = new LegalMoveCache();
+
+    // Castling rights bits
+    private static final int WHITE_KINGSIDE = 1;
+    private static final int WHITE_QUEENSIDE = 2;
+    private static final int BLACK_KINGSIDE = 4;
+    private static final int BLACK_QUEENSIDE = 8;
+
+    // Rights kept when a move touches a square; clears them when a king or
+    // rook leaves its home square or a rook is captured there
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, 0xF);
+        CASTLING_MASKS[Bitboards.square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+
+    private PieceColor sideToMove = PieceColor.WHITE;
+    private int castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+
+    // Zobrist key of the position, updated on every change (see Zobrist)
+    private long hash;
+
+    // Undo stack of irreversible state, one entry per move made; grows only
+    // when a game runs past its capacity
+    private int ply;
+    private int[] stackMoves = new int[256];
+    private Piece[] stackMoved = new Piece[256];
+    private Piece[] stackCaptured = new Piece[256];
+    private int[] stackCastling = new int[256];
+    private int[] stackEnPassant = new int[256];
+    private int[] stackHalfmove = new int[256];
+    private long[] stackHash = new long[256];
 
     /**
      * Constructs a new chessboard with pieces in their standard starting positions.
      */
     public Board() {
-        squares = new Piece[8][8];
-        capturedPieces = new ArrayList<>();
+        squares = new Piece[64];
+        capturedPieces = new ArrayList<>(MAX_CAPTURES);
         initializeBoard();
+        hash ^= Zobrist.castling(castlingRights);
+    }
+
+    /**
+     * Constructs an independent copy of another board. Pieces hold no state,
+     * so copying the square array is enough for the copy to be changed freely
+     * (for example by a worker thread) without touching the original. The
+     * undo history is copied too, so the copy can take moves back and sees
+     * repetitions of positions played before it was made.
+     *
+     * @param other the board to copy
+     */
+    public Board(Board other) {
+        squares = other.squares.clone();
+        capturedPieces = new ArrayList<>(MAX_CAPTURES);
+        capturedPieces.addAll(other.capturedPieces);
+        System.arraycopy(other.pieceMasks, 0, pieceMasks, 0, pieceMasks.length);
+        System.arraycopy(other.colorMasks, 0, colorMasks, 0, colorMasks.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        hash = other.hash;
+
+        ply = other.ply;
+        stackMoves = other.stackMoves.clone();
+        stackMoved = other.stackMoved.clone();
+        stackCaptured = other.stackCaptured.clone();
+        stackCastling = other.stackCastling.clone();
+        stackEnPassant = other.stackEnPassant.clone();
+        stackHalfmove = other.stackHalfmove.clone();
+        stackHash = other.stackHash.clone();
+    }
+
+    /**
+     * Constructs a chessboard holding a snapshot's position, with an empty
+     * undo history.
+     *
+     * @param snapshot the position to load
+     * @see BoardSnapshot#toBoard()
+     */
+    public Board(BoardSnapshot snapshot) {
+        squares = new Piece[64];
+        capturedPieces = new ArrayList<>(MAX_CAPTURES);
+
+        for (int kind = 0; kind < pieceMasks.length; kind++) {
+            long pieces = snapshot.getPieceMask(kind);
+            while (pieces != 0) {
+                place(Long.numberOfTrailingZeros(pieces), Piece.of(kind));
+                pieces &= pieces - 1;
+            }
+        }
+
+        sideToMove = snapshot.getSideToMove();
+        castlingRights = snapshot.getCastlingRights();
+        enPassantSquare = snapshot.getEnPassantSquare();
+        halfmoveClock = snapshot.getHalfmoveClock();
+        hash = snapshot.hashKey();
+    }
+
+    /**
+     * Constructs a chessboard from a position in Forsyth-Edwards Notation.
+     * Reads piece placement, side to move, castling rights, the en passant
+     * square and, when present, the halfmove clock; the fullmove number is
+     * ignored. Castling rights whose king or rook is not on its home square
+     * are dropped.
+     *
+     * @param fen the position, for example
+     *            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"
+     * @throws IllegalArgumentException if the string is not a valid FEN
+     */
+    public Board(String fen) {
+        squares = new Piece[64];
+        capturedPieces = new ArrayList<>(MAX_CAPTURES);
+
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        loadPlacement(fields[0], fen);
+
+        if (fields[1].equals("w")) {
+            sideToMove = PieceColor.WHITE;
+        } else if (fields[1].equals("b")) {
+            sideToMove = PieceColor.BLACK;
+            hash ^= Zobrist.side();
+        } else {
+            throw new IllegalArgumentException("Invalid side to move in FEN: " + fen);
+        }
+
+        castlingRights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                int index = "KQkq".indexOf(c);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Invalid castling rights in FEN: " + fen);
+                }
+                castlingRights |= 1 << index;
+            }
+            // Rights without the king and rook on their home squares could never be used
+            castlingRights &= possibleCastlingRights();
+        }
+        hash ^= Zobrist.castling(castlingRights);
+
+        if (!fields[3].equals("-")) {
+            setEnPassantSquare(Position.fromNotation(fields[3]).getIndex());
+        }
+
+        if (fields.length > 4) {
+            try {
+                halfmoveClock = Integer.parseInt(fields[4]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid halfmove clock in FEN: " + fen);
+            }
+        }
+    }
+
+    /**
+     * Works out which castling rights the piece placement allows: each needs
+     * its king on e1 or e8 and its rook in that side's corner.
+     *
+     * @return the castling right bits that match the pieces on the board
+     */
+    private int possibleCastlingRights() {
+        int rights = 0;
+        if (hasPiece(7, 4, PieceColor.WHITE, PieceType.KING)) {
+            if (hasPiece(7, 7, PieceColor.WHITE, PieceType.ROOK)) {
+                rights |= WHITE_KINGSIDE;
+            }
+            if (hasPiece(7, 0, PieceColor.WHITE, PieceType.ROOK)) {
+                rights |= WHITE_QUEENSIDE;
+            }
+        }
+        if (hasPiece(0, 4, PieceColor.BLACK, PieceType.KING)) {
+            if (hasPiece(0, 7, PieceColor.BLACK, PieceType.ROOK)) {
+                rights |= BLACK_KINGSIDE;
+            }
+            if (hasPiece(0, 0, PieceColor.BLACK, PieceType.ROOK)) {
+                rights |= BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Checks if a square holds a given piece.
+     */
+    private boolean hasPiece(int row, int col, PieceColor color, PieceType type) {
+        return squares[Bitboards.square(row, col)] == Piece.of(color, type);
+    }
+
+    /**
+     * Places the pieces described by the first field of a FEN string.
+     *
+     * @param placement the piece placement field, rank 8 first
+     * @param fen       the full string, for error messages
+     */
+    private void loadPlacement(String placement, String fen) {
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+        }
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char c : ranks[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else if (col < 8) {
+                    PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                    addPiece(Piece.of(color, PieceType.fromLetter(c)), row, col);
+                    col++;
+                } else {
+                    col++;
+                }
+            }
+            if (col != 8) {
+                throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+            }
+        }
     }
 
     /**
@@ -37,29 +286,81 @@ public class Board {
     private void initializeBoard() {
         // Initialize pawns for both colors
         for (int col = 0; col < 8; col++) {
-            squares[1][col] = new Pawn("black", new Position(1, col));
-            squares[6][col] = new Pawn("white", new Position(6, col));
+            addPiece(Piece.of(PieceColor.BLACK, PieceType.PAWN), 1, col);
+            addPiece(Piece.of(PieceColor.WHITE, PieceType.PAWN), 6, col);
         }
 
         // Initialize black pieces (back rank)
-        squares[0][0] = new Rook("black", new Position(0, 0));
-        squares[0][1] = new Knight("black", new Position(0, 1));
-        squares[0][2] = new Bishop("black", new Position(0, 2));
-        squares[0][3] = new Queen("black", new Position(0, 3));
-        squares[0][4] = new King("black", new Position(0, 4));
-        squares[0][5] = new Bishop("black", new Position(0, 5));
-        squares[0][6] = new Knight("black", new Position(0, 6));
-        squares[0][7] = new Rook("black", new Position(0, 7));
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.ROOK), 0, 0);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.KNIGHT), 0, 1);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.BISHOP), 0, 2);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.QUEEN), 0, 3);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.KING), 0, 4);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.BISHOP), 0, 5);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.KNIGHT), 0, 6);
+        addPiece(Piece.of(PieceColor.BLACK, PieceType.ROOK), 0, 7);
 
         // Initialize white pieces (back rank)
-        squares[7][0] = new Rook("white", new Position(7, 0));
-        squares[7][1] = new Knight("white", new Position(7, 1));
-        squares[7][2] = new Bishop("white", new Position(7, 2));
-        squares[7][3] = new Queen("white", new Position(7, 3));
-        squares[7][4] = new King("white", new Position(7, 4));
-        squares[7][5] = new Bishop("white", new Position(7, 5));
-        squares[7][6] = new Knight("white", new Position(7, 6));
-        squares[7][7] = new Rook("white", new Position(7, 7));
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.ROOK), 7, 0);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.KNIGHT), 7, 1);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.BISHOP), 7, 2);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.QUEEN), 7, 3);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.KING), 7, 4);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.BISHOP), 7, 5);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.KNIGHT), 7, 6);
+        addPiece(Piece.of(PieceColor.WHITE, PieceType.ROOK), 7, 7);
+    }
+
+    /**
+     * Places a piece during setup.
+     *
+     * @param piece the piece to place
+     * @param row   the board row
+     * @param col   the board column
+     */
+    private void addPiece(Piece piece, int row, int col) {
+        place(Bitboards.square(row, col), piece);
+    }
+
+    /**
+     * Puts a piece on a square and adds it to the bitboards.
+     * The square must be empty.
+     *
+     * @param square the target square index
+     * @param piece  the piece to place
+     */
+    private void place(int square, Piece piece) {
+        long b = Bitboards.bit(square);
+        squares[square] = piece;
+        hash ^= Zobrist.piece(piece.getKind(), square);
+        pieceMasks[piece.getKind()] |= b;
+        colorMasks[piece.getColor().ordinal()] |= b;
+        occupied |= b;
+        if (piece.getType() == PieceType.KING) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+    }
+
+    /**
+     * Removes whatever piece stands on a square from the grid and the bitboards.
+     *
+     * @param square the square index to clear
+     * @return the piece that was removed, or null if the square was empty
+     */
+    private Piece remove(int square) {
+        Piece piece = squares[square];
+        if (piece != null) {
+            long b = ~Bitboards.bit(square);
+            squares[square] = null;
+            hash ^= Zobrist.piece(piece.getKind(), square);
+            pieceMasks[piece.getKind()] &= b;
+            colorMasks[piece.getColor().ordinal()] &= b;
+            occupied &= b;
+            if (piece.getType() == PieceType.KING && kingSquares[piece.getColor().ordinal()] == square) {
+                kingSquares[piece.getColor().ordinal()] = -1;
+            }
+        }
+        return piece;
     }
 
     /**
@@ -69,34 +370,44 @@ public class Board {
      * @return the piece at the position, or null if the square is empty
      */
     public Piece getPiece(Position position) {
-        if (!isValidPosition(position)) {
+        return getPiece(position.getIndex());
+    }
+
+    /**
+     * Gets the piece on a square index.
+     *
+     * @param square the square index (0-63)
+     * @return the piece on the square, or null if the square is empty
+     */
+    public Piece getPiece(int square) {
+        if ((occupied & Bitboards.bit(square)) == 0) {
             return null;
         }
-        return squares[position.getRow()][position.getCol()];
+        return squares[square];
     }
 
     /**
      * Sets the piece at the specified position on the board.
-     * Used by undo logic to restore pieces to their previous squares.
+     * This is a setup edit: it is not recorded in the undo history.
      *
      * @param position the position to set
      * @param piece    the piece to place there (or null to clear)
      */
     public void setPiece(Position position, Piece piece) {
-        if (!isValidPosition(position)) {
-            return;
-        }
-        int row = position.getRow();
-        int col = position.getCol();
+        setPiece(position.getIndex(), piece);
+    }
 
-        squares[row][col] = piece;
+    /**
+     * Sets the piece on a square index.
+     *
+     * @param square the square index (0-63)
+     * @param piece  the piece to place there (or null to clear)
+     */
+    public void setPiece(int square, Piece piece) {
+        remove(square);
 
         if (piece != null) {
-            // Keep the piece's internal position in sync with the board
-            piece.setPosition(position);
-
-            // If this piece was previously captured, remove it from the captured list
-            capturedPieces.remove(piece);
+            place(square, piece);
         }
     }
 
@@ -110,366 +421,682 @@ public class Board {
      * @return true if the move was successful, false if invalid
      */
     public boolean movePiece(Position from, Position to) {
+        return movePiece(from.getIndex(), to.getIndex());
+    }
+
+    /**
+     * Attempts to move a piece between two square indices.
+     *
+     * @param from the starting square index
+     * @param to   the target square index
+     * @return true if the move was successful, false if invalid
+     * @see #movePiece(Position, Position)
+     */
+    public boolean movePiece(int from, int to) {
         Piece piece = getPiece(from);
 
         if (piece == null) {
             return false;
         }
 
-        // Handle castling moves
-        if (piece instanceof King && Math.abs(from.getCol() - to.getCol()) == 2) {
+        // Handle castling moves: the king steps two files along its own rank
+        if (piece.getType() == PieceType.KING && (to == from + 2 || to == from - 2) && (to >>> 3) == (from >>> 3)) {
             return handleCastling((King) piece, from, to);
         }
 
-        if (!piece.isValidMove(squares, to)) {
+        if (!piece.isValidMove(this, from, to)) {
             return false;
         }
 
+        int move = encodeMove(piece, from, to);
+
         // PREVENT MOVES THAT PUT OWN KING IN CHECK
-        if (wouldLeaveKingInCheck(piece, to)) {
-            System.out.println("Invalid move: Would put your king in check!");
+        if (wouldLeaveKingInCheck(move)) {
+            listener.moveLeavesKingInCheck(from, to);
             return false;
         }
 
-        Piece targetPiece = getPiece(to);
+        int targetSquare = capturedSquare(move, piece.getColor());
+        Piece targetPiece = getPiece(targetSquare);
         if (targetPiece != null) {
-            capturedPieces.add(targetPiece);
-            System.out.println(piece.getColor() + " " + getPieceType(piece) + " captures " + targetPiece.getColor()
-                    + " " + getPieceType(targetPiece) + "!");
+            listener.pieceCaptured(piece, targetPiece, targetSquare);
 
             // END GAME IF KING IS CAPTURED
-            if (targetPiece instanceof King) {
+            if (targetPiece.getType() == PieceType.KING) {
+                capturedPieces.add(targetPiece);
                 return true; // Move successful and king was captured
             }
         }
 
-        // Track king and rook movements for castling
-        trackPieceMovement(piece, from);
-
-        // Move the piece
-        squares[to.getRow()][to.getCol()] = piece;
-        squares[from.getRow()][from.getCol()] = null;
-        piece.move(to);
+        makeMove(move);
 
         // Handle pawn promotion
-        if (piece instanceof Pawn && ((Pawn) piece).isPromotionSquare(to)) {
-            promotePawn(to, piece.getColor());
+        if (Move.promotion(move) != 0) {
+            listener.pawnPromoted(piece.getColor(), TYPES[Move.promotion(move)], to);
         }
 
         return true;
     }
 
     /**
-     * Handles castling moves for both kingside and queenside.
+     * Builds the packed move for a piece moving between two squares, working
+     * out the capture, double-push, en passant and promotion flags.
+     * Pawns reaching the last rank are promoted to a queen.
      *
-     * @param king the king piece being moved
-     * @param from the king's starting position
-     * @param to   the king's target position
-     * @return true if castling was successful, false otherwise
+     * @param piece the piece being moved
+     * @param from  the starting square index
+     * @param to    the target square index
+     * @return the packed move
      */
-    private boolean handleCastling(King king, Position from, Position to) {
-        String color = king.getColor();
-        int row = from.getRow();
+    private int encodeMove(Piece piece, int from, int to) {
+        int flags = (occupied & Bitboards.bit(to)) != 0 ? Move.CAPTURE : Move.QUIET;
+        int promotion = 0;
+        if (piece.getType() == PieceType.PAWN) {
+            if (Math.abs(from - to) == 16) {
+                flags |= Move.DOUBLE_PUSH;
+            } else if (to == enPassantSquare && (from & 7) != (to & 7)) {
+                flags |= Move.CAPTURE | Move.EN_PASSANT;
+            }
+            if (((Pawn) piece).isPromotionSquare(to)) {
+                promotion = Move.PROMOTE_QUEEN;
+            }
+        }
+        return Move.of(from, to, flags, promotion);
+    }
 
-        // Check if king has moved
-        if ((color.equals("white") && whiteKingMoved) || (color.equals("black") && blackKingMoved)) {
-            return false;
+    /**
+     * Gets the square a move captures on. This is the target square except for
+     * en passant, where the captured pawn sits behind the target.
+     *
+     * @param move  the packed move
+     * @param color the mover's color
+     * @return the captured square index
+     */
+    private static int capturedSquare(int move, PieceColor color) {
+        int to = Move.to(move);
+        if ((Move.flags(move) & Move.EN_PASSANT) == 0) {
+            return to;
         }
+        return color == PieceColor.WHITE ? to + 8 : to - 8;
+    }
 
-        // Kingside castling (O-O)
-        if (to.getCol() == 6) {
-            // Check if rook has moved
-            if ((color.equals("white") && whiteRookKingSideMoved) ||
-                    (color.equals("black") && blackRookKingSideMoved)) {
-                return false;
-            }
+    /**
+     * Plays a packed move without validating it, pushing everything needed to
+     * take it back onto the undo stack. Handles captures, en passant, castling,
+     * promotion, castling rights, the en passant square, the halfmove clock and
+     * the side to move.
+     *
+     * @param move the packed move to play
+     */
+    public void makeMove(int move) {
+        if (ply == stackMoves.length) {
+            growStack();
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        Piece piece = squares[from];
+        PieceColor color = piece.getColor();
+
+        // Save the irreversible state before anything changes
+        stackMoves[ply] = move;
+        stackMoved[ply] = piece;
+        stackCastling[ply] = castlingRights;
+        stackEnPassant[ply] = enPassantSquare;
+        stackHalfmove[ply] = halfmoveClock;
+        stackHash[ply] = hash;
+
+        Piece captured = (flags & Move.CAPTURE) != 0 ? remove(capturedSquare(move, color)) : null;
+        stackCaptured[ply] = captured;
+        ply++;
+
+        if (captured != null) {
+            capturedPieces.add(captured);
+        }
 
-            // Check if squares between king and rook are empty
-            if (squares[row][5] != null || squares[row][6] != null) {
-                return false;
-            }
+        remove(from);
+        if (Move.promotion(move) != 0) {
+            promotePawn(to, color, TYPES[Move.promotion(move)]);
+        } else {
+            place(to, piece);
+        }
 
-            // Check if king would move through or into check
-            if (wouldLeaveKingInCheck(king, new Position(row, 5)) ||
-                    wouldLeaveKingInCheck(king, new Position(row, 6))) {
-                return false;
-            }
+        if ((flags & Move.CASTLE) != 0) {
+            moveCastlingRook(to, true);
+        }
 
-            // Perform castling
-            Piece rook = squares[row][7];
-            squares[row][6] = king;
-            squares[row][5] = rook;
-            squares[row][4] = null;
-            squares[row][7] = null;
-            king.move(new Position(row, 6));
-            rook.move(new Position(row, 5));
-
-        }
-        // Queenside castling (O-O-O)
-        else if (to.getCol() == 2) {
-            // Check if rook has moved
-            if ((color.equals("white") && whiteRookQueenSideMoved) ||
-                    (color.equals("black") && blackRookQueenSideMoved)) {
-                return false;
-            }
+        setCastlingRights(castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to]);
+        setEnPassantSquare((flags & Move.DOUBLE_PUSH) != 0 ? (from + to) >>> 1 : -1);
+        halfmoveClock = (captured != null || piece.getType() == PieceType.PAWN) ? 0 : halfmoveClock + 1;
+        sideToMove = color.opposite();
+        hash ^= Zobrist.side();
+    }
 
-            // Check if squares between king and rook are empty
-            if (squares[row][1] != null || squares[row][2] != null || squares[row][3] != null) {
-                return false;
-            }
+    /**
+     * Takes back the last move played with makeMove, restoring the moved and
+     * captured pieces and all irreversible state from the undo stack.
+     */
+    public void unmakeMove() {
+        ply--;
+        int move = stackMoves[ply];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece piece = stackMoved[ply];
+        Piece captured = stackCaptured[ply];
+
+        if ((Move.flags(move) & Move.CASTLE) != 0) {
+            moveCastlingRook(to, false);
+        }
 
-            // Check if king would move through or into check
-            if (wouldLeaveKingInCheck(king, new Position(row, 3)) ||
-                    wouldLeaveKingInCheck(king, new Position(row, 2))) {
-                return false;
-            }
+        // Removes the moved piece, or the piece it was promoted to
+        remove(to);
+        place(from, piece);
 
-            // Perform castling
-            Piece rook = squares[row][0];
-            squares[row][2] = king;
-            squares[row][3] = rook;
-            squares[row][4] = null;
-            squares[row][0] = null;
-            king.move(new Position(row, 2));
-            rook.move(new Position(row, 3));
-        } else {
-            return false;
+        if (captured != null) {
+            place(capturedSquare(move, piece.getColor()), captured);
+            capturedPieces.remove(capturedPieces.size() - 1);
         }
 
-        // Mark king as moved
-        if (color.equals("white")) {
-            whiteKingMoved = true;
-        } else {
-            blackKingMoved = true;
+        castlingRights = stackCastling[ply];
+        enPassantSquare = stackEnPassant[ply];
+        halfmoveClock = stackHalfmove[ply];
+        hash = stackHash[ply];
+        sideToMove = piece.getColor();
+        stackMoved[ply] = null;
+        stackCaptured[ply] = null;
+    }
+
+    /**
+     * Replaces the castling rights, updating the hash.
+     *
+     * @param rights the new castling rights bitmask
+     */
+    private void setCastlingRights(int rights) {
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    /**
+     * Replaces the en passant square, updating the hash.
+     *
+     * @param square the new en passant square index, or -1 for none
+     */
+    private void setEnPassantSquare(int square) {
+        if (enPassantSquare >= 0) {
+            hash ^= Zobrist.enPassant(enPassantSquare);
         }
+        enPassantSquare = square;
+        if (square >= 0) {
+            hash ^= Zobrist.enPassant(square);
+        }
+    }
 
-        return true;
+    /**
+     * Moves the rook that takes part in a castling move.
+     *
+     * @param kingTo  the king's target square index
+     * @param forward true when making the move, false when taking it back
+     */
+    private void moveCastlingRook(int kingTo, boolean forward) {
+        boolean kingSide = (kingTo & 7) == 6;
+        int rookHome = kingSide ? kingTo + 1 : kingTo - 2;
+        int rookCastled = kingSide ? kingTo - 1 : kingTo + 1;
+        int rookFrom = forward ? rookHome : rookCastled;
+        int rookTo = forward ? rookCastled : rookHome;
+        place(rookTo, remove(rookFrom));
+    }
+
+    /**
+     * Doubles the capacity of the undo stack.
+     */
+    private void growStack() {
+        int capacity = stackMoves.length * 2;
+        stackMoves = Arrays.copyOf(stackMoves, capacity);
+        stackMoved = Arrays.copyOf(stackMoved, capacity);
+        stackCaptured = Arrays.copyOf(stackCaptured, capacity);
+        stackCastling = Arrays.copyOf(stackCastling, capacity);
+        stackEnPassant = Arrays.copyOf(stackEnPassant, capacity);
+        stackHalfmove = Arrays.copyOf(stackHalfmove, capacity);
+        stackHash = Arrays.copyOf(stackHash, capacity);
     }
 
     /**
-     * Tracks movement of kings and rooks for castling eligibility.
+     * Handles castling moves for both kingside and queenside.
      *
-     * @param piece the piece that moved
-     * @param from  the original position
+     * @param king the king piece being moved
+     * @param from the king's starting square index
+     * @param to   the king's target square index
+     * @return true if castling was successful, false otherwise
      */
-    private void trackPieceMovement(Piece piece, Position from) {
-        String color = piece.getColor();
+    private boolean handleCastling(King king, int from, int to) {
+        int row = from >>> 3;
+        boolean kingSide = to > from;
 
-        if (piece instanceof King) {
-            if (color.equals("white")) {
-                whiteKingMoved = true;
-            } else {
-                blackKingMoved = true;
-            }
-        } else if (piece instanceof Rook) {
-            if (color.equals("white")) {
-                if (from.getCol() == 0)
-                    whiteRookQueenSideMoved = true;
-                if (from.getCol() == 7)
-                    whiteRookKingSideMoved = true;
-            } else {
-                if (from.getCol() == 0)
-                    blackRookQueenSideMoved = true;
-                if (from.getCol() == 7)
-                    blackRookKingSideMoved = true;
-            }
+        // Check the king is home and neither it nor the rook has moved
+        if (!king.isValidMove(this, from, to)) {
+            return false;
+        }
+
+        // Check the rook is still on its corner
+        if (!hasPiece(row, kingSide ? 7 : 0, king.getColor(), PieceType.ROOK)) {
+            return false;
+        }
+
+        // Check if squares between king and rook are empty
+        long between = kingSide
+                ? Bitboards.bit(Bitboards.square(row, 5)) | Bitboards.bit(Bitboards.square(row, 6))
+                : Bitboards.bit(Bitboards.square(row, 1)) | Bitboards.bit(Bitboards.square(row, 2))
+                        | Bitboards.bit(Bitboards.square(row, 3));
+        if ((occupied & between) != 0) {
+            return false;
+        }
+
+        // Check if king is in check or would move through or into check
+        PieceColor enemy = king.getColor().opposite();
+        int pass = kingSide ? Bitboards.square(row, 5) : Bitboards.square(row, 3);
+        if (isSquareAttacked(from, enemy) || isSquareAttacked(pass, enemy)
+                || isSquareAttacked(to, enemy)) {
+            return false;
         }
+
+        // Perform castling
+        makeMove(Move.of(from, to, Move.CASTLE, 0));
+        return true;
     }
 
     /**
-     * Promotes a pawn to a queen when it reaches the opposite end of the board.
+     * Replaces a pawn that reached the last rank with the promoted piece.
      *
-     * @param position the position where promotion occurs
-     * @param color    the color of the pawn being promoted
+     * @param square the square index where promotion occurs
+     * @param color  the color of the pawn being promoted
+     * @param type   the piece type to promote to
      */
-    private void promotePawn(Position position, String color) {
-        squares[position.getRow()][position.getCol()] = new Queen(color, position);
-        System.out.println(color + " pawn promoted to Queen!");
+    private void promotePawn(int square, PieceColor color, PieceType type) {
+        place(square, Piece.of(color, type));
     }
 
     /**
-     * Checks if moving a piece to a new position would leave the player's king in
-     * check.
-     * Uses temporary move simulation to test the game state.
+     * Checks if playing a move would leave the mover's king in check.
+     * Plays the move with makeMove, runs a square-attack query on the mover's
+     * king square and takes the move back.
      *
-     * @param piece the piece being moved
-     * @param to    the target position
+     * @param move the packed move
      * @return true if the move would leave the king in check, false otherwise
      */
-    private boolean wouldLeaveKingInCheck(Piece piece, Position to) {
-        // Store original state
-        Position originalPos = piece.getPosition();
-        Piece targetPiece = squares[to.getRow()][to.getCol()];
+    private boolean wouldLeaveKingInCheck(int move) {
+        int side = squares[Move.from(move)].getColor().ordinal();
+        makeMove(move);
+        boolean inCheck = isInCheck(side);
+        unmakeMove();
+        return inCheck;
+    }
 
-        // Make temporary move
-        squares[to.getRow()][to.getCol()] = piece;
-        squares[originalPos.getRow()][originalPos.getCol()] = null;
-        piece.setPosition(to);
+    /**
+     * Checks if the specified color's king is currently in check.
+     *
+     * @param color the color to check
+     * @return true if the king is in check, false otherwise
+     */
+    public boolean isCheck(PieceColor color) {
+        return isInCheck(color.ordinal());
+    }
 
-        // Check if king is in check after this move
-        boolean inCheck = isCheck(piece.getColor());
+    /**
+     * Checks if the king of the given color index is attacked.
+     *
+     * @param color the color index (0 white, 1 black)
+     * @return true if the king is in check, false otherwise
+     */
+    private boolean isInCheck(int color) {
+        int king = kingSquares[color];
+        return king >= 0 && isAttacked(king, color ^ 1);
+    }
 
-        // Undo move
-        squares[to.getRow()][to.getCol()] = targetPiece;
-        squares[originalPos.getRow()][originalPos.getCol()] = piece;
-        piece.setPosition(originalPos);
+    /**
+     * Checks if any piece of the given color attacks a square.
+     * Looks outward from the square along knight, pawn, king and slider lines
+     * instead of generating the attacker's moves.
+     *
+     * @param square  the square index (0-63)
+     * @param byColor the attacking color
+     * @return true if the square is attacked, false otherwise
+     */
+    public boolean isSquareAttacked(int square, PieceColor byColor) {
+        return isAttacked(square, byColor.ordinal());
+    }
 
-        return inCheck;
+    /**
+     * Gets the square of a color's king.
+     *
+     * @param color the king's color
+     * @return the king's square index, or -1 if that king is not on the board
+     */
+    public int getKingSquare(PieceColor color) {
+        return kingSquares[color.ordinal()];
     }
 
     /**
-     * Helper method to get the simple class name of a piece for display purposes.
+     * Checks if any piece of the given color attacks a square.
+     * Looks outward from the square with each piece's attack pattern and
+     * intersects the result with the attacker's masks.
      *
-     * @param piece the piece to get the type of
-     * @return the simple class name of the piece
+     * @param square the square index
+     * @param by     the attacking color index
+     * @return true if the square is attacked, false otherwise
      */
-    private String getPieceType(Piece piece) {
-        return piece.getClass().getSimpleName();
+    private boolean isAttacked(int square, int by) {
+        int offset = by * BLACK_OFFSET;
+        long queens = pieceMasks[offset + QUEEN];
+        return (Attacks.knight(square) & pieceMasks[offset + KNIGHT]) != 0
+                || (Attacks.king(square) & pieceMasks[offset + KING]) != 0
+                // A pawn of the defending color on this square would attack exactly
+                // the squares enemy pawns attack it from
+                || (Attacks.pawn(square, by ^ 1) & pieceMasks[offset + PAWN]) != 0
+                || (Attacks.bishop(square, occupied) & (pieceMasks[offset + BISHOP] | queens)) != 0
+                || (Attacks.rook(square, occupied) & (pieceMasks[offset + ROOK] | queens)) != 0;
     }
 
     /**
-     * Checks if the specified color's king is currently in check.
+     * Finds every piece of one color that attacks a square.
      *
-     * @param color the color to check ("white" or "black")
-     * @return true if the king is in check, false otherwise
+     * @param square  the square index (0-63)
+     * @param byColor the attacking color
+     * @return the mask of attacking pieces
      */
-    public boolean isCheck(String color) {
-        // Find the king
-        Position kingPosition = findKing(color);
-        if (kingPosition == null) {
-            return false;
+    public long attackersTo(int square, PieceColor byColor) {
+        return attackersTo(square, byColor.ordinal(), occupied);
+    }
+
+    /**
+     * Finds every piece of either color that attacks a square, using the
+     * supplied occupancy for slider lines. Pieces missing from the occupancy
+     * still count as attackers; callers mask them out.
+     *
+     * @param square   the square index
+     * @param occupied the occupancy to use for slider lines
+     * @return the mask of attacking pieces of both colors
+     */
+    long attackersTo(int square, long occupied) {
+        return attackersTo(square, 0, occupied) | attackersTo(square, 1, occupied);
+    }
+
+    /**
+     * Finds every piece of the given color that attacks a square, using the
+     * supplied occupancy for slider lines.
+     *
+     * @param square   the square index
+     * @param by       the attacking color index
+     * @param occupied the occupancy to use for slider lines
+     * @return the mask of attacking pieces
+     */
+    private long attackersTo(int square, int by, long occupied) {
+        int offset = by * BLACK_OFFSET;
+        long queens = pieceMasks[offset + QUEEN];
+        return (Attacks.knight(square) & pieceMasks[offset + KNIGHT])
+                | (Attacks.king(square) & pieceMasks[offset + KING])
+                | (Attacks.pawn(square, by ^ 1) & pieceMasks[offset + PAWN])
+                | (Attacks.bishop(square, occupied) & (pieceMasks[offset + BISHOP] | queens))
+                | (Attacks.rook(square, occupied) & (pieceMasks[offset + ROOK] | queens));
+    }
+
+    /**
+     * Writes every pseudo-legal move for one color into a caller-owned buffer.
+     * Walks the color's occupancy mask and lets each piece append its own
+     * packed moves, so nothing is allocated.
+     *
+     * @param color the color to move
+     * @param moves the buffer to fill (cleared first)
+     */
+    public void generateMoves(PieceColor color, MoveList moves) {
+        generateMoves(color.ordinal(), moves);
+    }
+
+    private void generateMoves(int color, MoveList moves) {
+        moves.clear();
+        long own = colorMasks[color];
+        while (own != 0) {
+            int square = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+            squares[square].generateMoves(this, square, moves);
         }
+    }
 
-        // Check if any opponent piece can attack the king
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null && !piece.getColor().equals(color)) {
-                    if (piece.isValidMove(squares, kingPosition)) {
-                        return true;
-                    }
+    /**
+     * Writes every strictly legal move for the side to move into a caller-owned
+     * buffer.
+     *
+     * @param moves the buffer to fill (cleared first)
+     */
+    public void legalMoves(MoveList moves) {
+        legalMoves(sideToMove.ordinal(), moves);
+    }
+
+    /**
+     * Generates the legal moves of one color without playing any of them.
+     * Checkers and pinned pieces are computed once; after that each
+     * pseudo-legal move is kept or dropped with a few mask tests: king moves
+     * must land on unattacked squares, pinned pieces must stay on the line
+     * through their king, and in check every other move must capture the
+     * checker or block its line.
+     *
+     * @param side  the color index to generate for
+     * @param moves the buffer to fill (cleared first)
+     */
+    private void legalMoves(int side, MoveList moves) {
+        generateMoves(side, moves);
+        int king = kingSquares[side];
+        if (king < 0) {
+            return;
+        }
+
+        int them = side ^ 1;
+        long checkers = attackersTo(king, them, occupied);
+        long pinned = pinnedPieces(side, king);
+        long evasions;
+        if (checkers == 0) {
+            evasions = ~0L;
+        } else if ((checkers & (checkers - 1)) == 0) {
+            // Single check: capture the checker or block the line to it
+            evasions = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        } else {
+            // Double check: only the king can move
+            evasions = 0L;
+        }
+        long occupiedWithoutKing = occupied ^ Bitboards.bit(king);
+
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            boolean legal;
+            if (from == king) {
+                if (Move.isCastle(move)) {
+                    int pass = (from + to) >>> 1;
+                    legal = checkers == 0 && !isAttacked(pass, them) && !isAttacked(to, them);
+                } else {
+                    // Take the king off the board so sliders see through its old square
+                    legal = attackersTo(to, them, occupiedWithoutKing) == 0;
                 }
+            } else if ((Move.flags(move) & Move.EN_PASSANT) != 0) {
+                legal = side == sideToMove.ordinal() && isEnPassantLegal(from, to, side, king);
+            } else {
+                legal = (evasions & Bitboards.bit(to)) != 0
+                        && ((pinned & Bitboards.bit(from)) == 0 || (Attacks.line(king, from) & Bitboards.bit(to)) != 0);
+            }
+            if (legal) {
+                moves.set(kept++, move);
             }
         }
-        return false;
+        moves.truncate(kept);
     }
 
     /**
-     * Finds the position of the king of the specified color.
+     * Finds the pieces of one color that are pinned to their king.
+     * Looks from the king along rook and bishop lines through friendly pieces
+     * for enemy sliders; a lone friendly piece between one and the king is
+     * pinned.
      *
-     * @param color the color of the king to find ("white" or "black")
-     * @return the position of the king, or null if not found
+     * @param side the color index of the king
+     * @param king the king's square index
+     * @return the mask of pinned pieces
      */
-    private Position findKing(String color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece instanceof King && piece.getColor().equals(color)) {
-                    return piece.getPosition();
-                }
+    private long pinnedPieces(int side, int king) {
+        int offset = (side ^ 1) * BLACK_OFFSET;
+        long enemies = colorMasks[side ^ 1];
+        long queens = pieceMasks[offset + QUEEN];
+        long snipers = (Attacks.rook(king, enemies) & (pieceMasks[offset + ROOK] | queens))
+                | (Attacks.bishop(king, enemies) & (pieceMasks[offset + BISHOP] | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & colorMasks[side];
             }
         }
-        return null;
+        return pinned;
     }
 
     /**
-     * Checks if the specified color is in checkmate (no legal moves to escape
-     * check).
+     * Checks an en passant capture for discovered checks. Both pawns leave
+     * their squares at once, which can open a rank or diagonal to the king
+     * that the pin test alone would miss.
      *
-     * @param color the color to check ("white" or "black")
-     * @return true if the color is in checkmate, false otherwise
+     * @param from the capturing pawn's square index
+     * @param to   the en passant square index
+     * @param side the capturing color index
+     * @param king the capturing side's king square index
+     * @return true if the capture leaves the king safe
      */
+    private boolean isEnPassantLegal(int from, int to, int side, int king) {
+        int captured = side == 0 ? to + 8 : to - 8;
+        long after = (occupied ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(to);
+        int offset = (side ^ 1) * BLACK_OFFSET;
+        long queens = pieceMasks[offset + QUEEN];
+        return (Attacks.knight(king) & pieceMasks[offset + KNIGHT]) == 0
+                && (Attacks.pawn(king, side) & pieceMasks[offset + PAWN] & ~Bitboards.bit(captured)) == 0
+                && (Attacks.bishop(king, after) & (pieceMasks[offset + BISHOP] | queens)) == 0
+                && (Attacks.rook(king, after) & (pieceMasks[offset + ROOK] | queens)) == 0;
+    }
+
     /**
-     * Checks if the specified color is in checkmate (no legal moves to escape
-     * check).
+     * Checks if the specified color is in checkmate (in check with no legal
+     * moves).
      *
-     * @param color the color to check ("white" or "black")
+     * @param color the color to check
      * @return true if the color is in checkmate, false otherwise
      */
+    public boolean isCheckmate(PieceColor color) {
+        if (color == sideToMove) {
+            int entry = statusEntry();
+            return statusCache.isInCheck(entry) && statusCache.size(entry) == 0;
+        }
+        int side = color.ordinal();
+        if (!isInCheck(side)) {
+            return false;
+        }
+        legalMoves(side, scratchMoves);
+        return scratchMoves.isEmpty();
+    }
+
     /**
-     * Checks if the specified color is in checkmate (no legal moves to escape
+     * Checks if the specified color is in stalemate (no legal moves but not in
      * check).
      *
-     * @param color the color to check ("white" or "black")
-     * @return true if the color is in checkmate, false otherwise
+     * @param color the color to check
+     * @return true if the color is in stalemate, false otherwise
      */
-    public boolean isCheckmate(String color) {
-        // First, must be in check to be in checkmate
-        if (!isCheck(color)) {
+    public boolean isStalemate(PieceColor color) {
+        if (color == sideToMove) {
+            int entry = statusEntry();
+            return !statusCache.isInCheck(entry) && statusCache.size(entry) == 0;
+        }
+        int side = color.ordinal();
+        if (isInCheck(side)) {
             return false;
         }
+        legalMoves(side, scratchMoves);
+        return scratchMoves.isEmpty();
+    }
 
-        // Check if any LEGAL move can get out of check
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null && piece.getColor().equals(color)) {
-                    List<Position> possibleMoves = piece.possibleMoves(squares);
-
-                    for (Position move : possibleMoves) {
-                        // IMPORTANT: For kings attempting castling, skip if in check
-                        // You cannot castle out of check
-                        if (piece instanceof King && Math.abs(piece.getPosition().getCol() - move.getCol()) == 2) {
-                            continue;
-                        }
-
-                        // Check if this move is actually legal (not blocked by friendly piece)
-                        Piece targetPiece = squares[move.getRow()][move.getCol()];
-                        if (targetPiece != null && targetPiece.getColor().equals(color)) {
-                            // Can't move to square occupied by own piece
-                            continue;
-                        }
-
-                        // Try the move
-                        Position originalPosition = piece.getPosition();
-
-                        // Make temporary move
-                        squares[move.getRow()][move.getCol()] = piece;
-                        squares[originalPosition.getRow()][originalPosition.getCol()] = null;
-                        piece.setPosition(move);
-
-                        boolean stillInCheck = isCheck(color);
-
-                        // Undo the move
-                        squares[move.getRow()][move.getCol()] = targetPiece;
-                        squares[originalPosition.getRow()][originalPosition.getCol()] = piece;
-                        piece.setPosition(originalPosition);
-
-                        if (!stillInCheck) {
-                            return false; // Found an escape move
-                        }
-                    }
-                }
-            }
+    /**
+     * Copies the legal moves of the side to move into a buffer, generating
+     * them only if this position is not already in the status cache. Meant
+     * for callers that ask about the same position repeatedly, such as the
+     * GUI; search and perft should call legalMoves directly.
+     *
+     * @param moves the buffer to fill (cleared first)
+     */
+    public void cachedLegalMoves(MoveList moves) {
+        statusCache.copyMoves(statusEntry(), moves);
+    }
+
+    /**
+     * Gets the number of legal moves for the side to move, served from the
+     * status cache when possible.
+     *
+     * @return the legal move count
+     */
+    public int legalMoveCount() {
+        return statusCache.size(statusEntry());
+    }
+
+    /**
+     * Finds the status cache entry for the current position, generating the
+     * legal moves and storing them on a miss.
+     *
+     * @return the cache entry index
+     */
+    private int statusEntry() {
+        int entry = statusCache.probe(hash, occupied);
+        if (entry < 0) {
+            int side = sideToMove.ordinal();
+            legalMoves(side, scratchMoves);
+            entry = statusCache.store(hash, occupied, scratchMoves, isInCheck(side));
         }
+        return entry;
+    }
 
-        // No escape moves found - it's checkmate
-        return true;
+    /**
+     * Counts how many times the current position occurred earlier in the
+     * game, by comparing hashes on the undo stack. Only positions since the
+     * last capture or pawn move are checked, since none before it can repeat.
+     *
+     * @return the number of earlier occurrences (2 or more means threefold repetition)
+     */
+    public int repetitionCount() {
+        int count = 0;
+        int oldest = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= oldest; i -= 2) {
+            if (stackHash[i] == hash) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
-     * Checks if the specified color is in stalemate (no legal moves but not in
-     * check).
+     * Checks if neither side has enough material left to deliver checkmate:
+     * bare kings, a king and one minor piece against a king, or kings and
+     * bishops that all stand on squares of the same color.
      *
-     * @param color the color to check ("white" or "black")
-     * @return true if the color is in stalemate, false otherwise
+     * @return true if no checkmate is possible
      */
-    public boolean isStalemate(String color) {
-        if (isCheck(color)) {
+    public boolean isInsufficientMaterial() {
+        long heavy = pieceMasks[PAWN] | pieceMasks[ROOK] | pieceMasks[QUEEN]
+                | pieceMasks[BLACK_OFFSET + PAWN] | pieceMasks[BLACK_OFFSET + ROOK] | pieceMasks[BLACK_OFFSET + QUEEN];
+        if (heavy != 0) {
             return false;
         }
-        // Check if any legal move is available
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null && piece.getColor().equals(color)) {
-                    if (!piece.possibleMoves(squares).isEmpty()) {
-                        return false;
-                    }
-                }
-            }
+        long knights = pieceMasks[KNIGHT] | pieceMasks[BLACK_OFFSET + KNIGHT];
+        long bishops = pieceMasks[BISHOP] | pieceMasks[BLACK_OFFSET + BISHOP];
+        int minors = Long.bitCount(knights | bishops);
+        if (minors <= 1) {
+            return true;
         }
-        return true;
+        return knights == 0 && ((bishops & Bitboards.DARK_SQUARES) == 0 || (bishops & ~Bitboards.DARK_SQUARES) == 0);
     }
 
     /**
@@ -479,7 +1106,7 @@ public class Board {
      */
     public boolean isKingCaptured() {
         for (Piece piece : capturedPieces) {
-            if (piece instanceof King) {
+            if (piece.getType() == PieceType.KING) {
                 return true;
             }
         }
@@ -491,28 +1118,16 @@ public class Board {
      *
      * @return the color of the winning player, or null if no king was captured
      */
-    public String getWinner() {
+    public PieceColor getWinner() {
         for (Piece piece : capturedPieces) {
-            if (piece instanceof King) {
+            if (piece.getType() == PieceType.KING) {
                 // The opponent of the captured king's color wins
-                return piece.getColor().equals("white") ? "black" : "white";
+                return piece.getColor().opposite();
             }
         }
         return null;
     }
 
-    /**
-     * Validates if a position is within the chessboard boundaries.
-     *
-     * @param position the position to validate
-     * @return true if the position is valid, false otherwise
-     */
-    private boolean isValidPosition(Position position) {
-        int row = position.getRow();
-        int col = position.getCol();
-        return row >= 0 && row < 8 && col >= 0 && col < 8;
-    }
-
     /**
      * Displays the current state of the chessboard in the console.
      * Shows piece positions using algebraic notation with file (A-H) and rank (1-8)
@@ -527,7 +1142,7 @@ public class Board {
         for (int row = 0; row < 8; row++) {
             System.out.print((8 - row) + " ");
             for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
+                Piece piece = squares[Bitboards.square(row, col)];
                 if (piece == null) {
                     System.out.print(isDarkSquare(row, col) ? "## " : "   ");
                 } else {
@@ -540,11 +1155,126 @@ public class Board {
     }
 
     /**
-     * Gets the 2D array representing the board squares.
+     * Sets the listener told about captures, promotions and rejected moves in
+     * movePiece. Boards start with no listener, and copies do not inherit
+     * one.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(BoardListener listener) {
+        this.listener = listener != null ? listener : BoardListener.NONE;
+    }
+
+    /**
+     * Takes an immutable copy of the current position without copying any
+     * pieces. The snapshot can be handed to another thread, which can read
+     * it or build its own Board from it while this board keeps changing.
+     *
+     * @return the snapshot
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(pieceMasks, sideToMove, castlingRights, enPassantSquare, halfmoveClock, hash);
+    }
+
+    /**
+     * Gets the Zobrist key of the current position. It covers piece placement,
+     * side to move, castling rights and the en passant file, so equal
+     * positions have equal keys.
+     *
+     * @return the 64-bit position hash
+     */
+    public long hashKey() {
+        return hash;
+    }
+
+    /**
+     * Gets the color whose turn it is on this board.
+     *
+     * @return the side to move
+     */
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Checks if a color still has the right to castle on one side.
+     * Rights are lost once the king or that rook has moved or the rook was
+     * captured; this does not check for blockers or attacked squares.
+     *
+     * @param color    the color to check
+     * @param kingSide true for kingside (O-O), false for queenside (O-O-O)
+     * @return true if the castling right is still held
+     */
+    public boolean canCastle(PieceColor color, boolean kingSide) {
+        int right = color == PieceColor.WHITE
+                ? (kingSide ? WHITE_KINGSIDE : WHITE_QUEENSIDE)
+                : (kingSide ? BLACK_KINGSIDE : BLACK_QUEENSIDE);
+        return (castlingRights & right) != 0;
+    }
+
+    /**
+     * Gets the square a pawn may capture en passant on this move.
+     *
+     * @return the en passant square index, or -1 if there is none
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Gets the number of half-moves since the last capture or pawn move.
+     *
+     * @return the halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Checks if there is a move on the undo stack.
+     *
+     * @return true if unmakeMove can be called
+     */
+    public boolean canUndo() {
+        return ply > 0;
+    }
+
+    /**
+     * Gets the mask of all occupied squares.
+     *
+     * @return the occupancy bitboard
+     */
+    public long getOccupiedMask() {
+        return occupied;
+    }
+
+    /**
+     * Gets the squares holding one kind of piece.
+     *
+     * @param kind the piece kind (color ordinal * 6 + type ordinal)
+     * @return the bitboard of that kind
+     */
+    public long getPieceMask(int kind) {
+        return pieceMasks[kind];
+    }
+
+    /**
+     * Gets the mask of squares occupied by one color.
+     *
+     * @param color the color
+     * @return the occupancy bitboard for that color
+     */
+    public long getColorMask(PieceColor color) {
+        return colorMasks[color.ordinal()];
+    }
+
+    /**
+     * Gets the array representing the board squares, indexed by square index
+     * (row * 8 + col).
      *
-     * @return the 8x8 array of pieces
+     * @return the 64-entry array of pieces
      */
-    public Piece[][] getSquares() {
+    public Piece[] getSquares() {
         return squares;
     }
 
@@ -0,0 +1,48 @@
+package board;
+
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Receives notable events from Board.movePiece: captures, promotions and
+ * moves rejected because they would leave the king in check. Every method
+ * has an empty default, so a listener only overrides what it cares about,
+ * and a board with no listener pays nothing but a no-op call. Events carry
+ * only shared pieces and square indices, so delivering one never allocates.
+ */
+public interface BoardListener {
+    /** A listener that ignores every event; the board's default. */
+    BoardListener NONE = new BoardListener() {
+    };
+
+    /**
+     * Called when a validated move captures a piece, before it is played.
+     *
+     * @param attacker the moving piece
+     * @param captured the piece being captured
+     * @param square   the square index the captured piece stood on
+     */
+    default void pieceCaptured(Piece attacker, Piece captured, int square) {
+    }
+
+    /**
+     * Called after a pawn has been promoted.
+     *
+     * @param color  the color of the pawn
+     * @param type   the piece type it was promoted to
+     * @param square the promotion square index
+     */
+    default void pawnPromoted(PieceColor color, PieceType type, int square) {
+    }
+
+    /**
+     * Called when a move is rejected because it would leave the mover's own
+     * king in check.
+     *
+     * @param from the starting square index
+     * @param to   the target square index
+     */
+    default void moveLeavesKingInCheck(int from, int to) {
+    }
+}
@@ -0,0 +1,117 @@
+package board;
+
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * An immutable copy of a board position held entirely in primitives: one
+ * bitboard per piece kind plus side to move, castling rights, en passant
+ * square, halfmove clock and hash. Taking one costs a 12-long array copy, so
+ * the thread that owns a live board can hand positions to worker threads
+ * without pausing play. Workers read the snapshot directly or turn it into a
+ * Board of their own.
+ */
+public final class BoardSnapshot {
+    // Cached enum values, since values() copies the array on every call
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final PieceColor[] COLORS = PieceColor.values();
+
+    private final long[] pieceMasks;
+    private final PieceColor sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final long hash;
+
+    BoardSnapshot(long[] pieceMasks, PieceColor sideToMove, int castlingRights, int enPassantSquare,
+            int halfmoveClock, long hash) {
+        this.pieceMasks = pieceMasks.clone();
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.hash = hash;
+    }
+
+    /**
+     * Gets the squares holding one kind of piece.
+     *
+     * @param kind the piece kind (color ordinal * 6 + type ordinal)
+     * @return the bitboard of that kind
+     */
+    public long getPieceMask(int kind) {
+        return pieceMasks[kind];
+    }
+
+    /**
+     * Gets the kind of piece standing on a square.
+     *
+     * @param square the square index (0-63)
+     * @return the piece kind (color ordinal * 6 + type ordinal), or -1 if the square is empty
+     */
+    public int getKind(int square) {
+        long bit = Bitboards.bit(square);
+        for (int kind = 0; kind < pieceMasks.length; kind++) {
+            if ((pieceMasks[kind] & bit) != 0) {
+                return kind;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the type of the piece standing on a square.
+     *
+     * @param square the square index (0-63)
+     * @return the piece type, or null if the square is empty
+     */
+    public PieceType getType(int square) {
+        int kind = getKind(square);
+        return kind < 0 ? null : TYPES[kind % Board.BLACK_OFFSET];
+    }
+
+    /**
+     * Gets the color of the piece standing on a square.
+     *
+     * @param square the square index (0-63)
+     * @return the piece color, or null if the square is empty
+     */
+    public PieceColor getColor(int square) {
+        int kind = getKind(square);
+        return kind < 0 ? null : COLORS[kind / Board.BLACK_OFFSET];
+    }
+
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Gets the Zobrist key of the position (see Board.hashKey).
+     *
+     * @return the 64-bit position hash
+     */
+    public long hashKey() {
+        return hash;
+    }
+
+    /**
+     * Builds a new board holding this position, with an empty undo history.
+     *
+     * @return the new board
+     */
+    public Board toBoard() {
+        return new Board(this);
+    }
+}
@@ -0,0 +1,98 @@
+package board;
+
+import java.util.Arrays;
+
+/**
+ * A small direct-mapped cache of legal move lists and check status, keyed by
+ * position hash. Board uses it to answer repeated status queries (checkmate,
+ * stalemate, the moves to highlight) for an unchanged position with a
+ * single move generation. Entries are never invalidated: the hash covers
+ * everything that decides which moves are legal, so any change to the
+ * position, including make and unmake, simply looks up a different key.
+ * All storage is allocated up front.
+ */
+public final class LegalMoveCache {
+    private static final int ENTRIES = 8;
+    private static final int MAX_MOVES = 256;
+
+    private final long[] keys = new long[ENTRIES];
+    // Occupancy stored alongside the key as a second check against hash collisions
+    private final long[] occupancy = new long[ENTRIES];
+    // Number of legal moves per entry, or -1 for an empty slot
+    private final int[] sizes = new int[ENTRIES];
+    private final boolean[] inCheck = new boolean[ENTRIES];
+    private final int[] moves = new int[ENTRIES * MAX_MOVES];
+
+    public LegalMoveCache() {
+        Arrays.fill(sizes, -1);
+    }
+
+    /**
+     * Finds the entry for a position.
+     *
+     * @param key      the position's Zobrist key
+     * @param occupied the position's occupancy mask
+     * @return the entry index, or -1 if the position is not cached
+     */
+    public int probe(long key, long occupied) {
+        int entry = (int) key & (ENTRIES - 1);
+        return sizes[entry] >= 0 && keys[entry] == key && occupancy[entry] == occupied ? entry : -1;
+    }
+
+    /**
+     * Stores a position's legal moves and check status, replacing whatever
+     * was in its slot.
+     *
+     * @param key        the position's Zobrist key
+     * @param occupied   the position's occupancy mask
+     * @param legalMoves the legal moves of the side to move
+     * @param check      true if the side to move is in check
+     * @return the entry index
+     */
+    public int store(long key, long occupied, MoveList legalMoves, boolean check) {
+        int entry = (int) key & (ENTRIES - 1);
+        keys[entry] = key;
+        occupancy[entry] = occupied;
+        sizes[entry] = legalMoves.size();
+        inCheck[entry] = check;
+        int base = entry * MAX_MOVES;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            moves[base + i] = legalMoves.get(i);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the number of legal moves in an entry.
+     *
+     * @param entry the entry index from probe or store
+     * @return the move count
+     */
+    public int size(int entry) {
+        return sizes[entry];
+    }
+
+    /**
+     * Checks if the side to move was in check in an entry's position.
+     *
+     * @param entry the entry index from probe or store
+     * @return true if in check
+     */
+    public boolean isInCheck(int entry) {
+        return inCheck[entry];
+    }
+
+    /**
+     * Copies an entry's legal moves into a buffer.
+     *
+     * @param entry  the entry index from probe or store
+     * @param target the buffer to fill (cleared first)
+     */
+    public void copyMoves(int entry, MoveList target) {
+        target.clear();
+        int base = entry * MAX_MOVES;
+        for (int i = 0; i < sizes[entry]; i++) {
+            target.add(moves[base + i]);
+        }
+    }
+}
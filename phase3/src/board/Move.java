@@ -0,0 +1,82 @@
+package board;
+
+import utils.Position;
+
+/**
+ * Packs a move into a single int so move generation never allocates.
+ * Layout: bits 0-5 from square, bits 6-11 to square, bits 12-15 flags,
+ * bits 16-18 promotion piece type (0 when the move is not a promotion).
+ */
+public final class Move {
+    public static final int QUIET = 0;
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PUSH = 2;
+    public static final int CASTLE = 4;
+    public static final int EN_PASSANT = 8;
+
+    // Promotion piece types, matching the piece type order used by Board
+    public static final int PROMOTE_KNIGHT = 1;
+    public static final int PROMOTE_BISHOP = 2;
+    public static final int PROMOTE_ROOK = 3;
+    public static final int PROMOTE_QUEEN = 4;
+
+    private Move() {
+    }
+
+    /**
+     * Packs a move.
+     *
+     * @param from      the starting square index
+     * @param to        the target square index
+     * @param flags     a combination of the flag constants
+     * @param promotion the promotion piece type, or 0 for none
+     * @return the packed move
+     */
+    public static int of(int from, int to, int flags, int promotion) {
+        return from | (to << 6) | (flags << 12) | (promotion << 16);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 16) & 0x7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (flags(move) & CASTLE) != 0;
+    }
+
+    /**
+     * Formats a move as from and to squares in coordinate notation,
+     * with a promotion letter when needed (for example "e7e8q").
+     *
+     * @param move the packed move
+     * @return the move text
+     */
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+        int promotion = promotion(move);
+        if (promotion != 0) {
+            text += "nbrq".charAt(promotion - 1);
+        }
+        return text;
+    }
+
+    private static String squareName(int square) {
+        return Position.of(square).toChessNotation().toLowerCase();
+    }
+}
@@ -0,0 +1,47 @@
+package board;
+
+/**
+ * A reusable buffer of packed moves (see Move).
+ * Callers keep one list and clear it between generations, so steady-state
+ * move generation allocates nothing.
+ */
+public class MoveList {
+    // No chess position has more than 218 legal moves
+    private static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Drops every move from the given index onward.
+     *
+     * @param size the number of moves to keep
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,170 @@
+package board;
+
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Static exchange evaluation (SEE): the material a move wins or loses once
+ * both sides have made every capture on its target square that pays off,
+ * always recapturing with their least valuable attacker. It answers "is this
+ * capture safe?" from square-attack queries alone, without playing moves,
+ * so the search can skip losing captures and the GUI can flag pieces left
+ * hanging.
+ *
+ * Sliders that stand behind a capturing piece join the exchange once it has
+ * left the line (x-rays). Pins and checks are ignored, as is usual for SEE.
+ */
+public final class StaticExchange {
+    private static final PieceColor[] COLORS = PieceColor.values();
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    // PieceType values by ordinal, so the exchange loop does not go through the enum
+    private static final int[] VALUES = new int[6];
+
+    static {
+        for (PieceType type : PieceType.values()) {
+            VALUES[type.ordinal()] = type.getValue();
+        }
+    }
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Works out the material balance of a move after the exchange on its
+     * target square plays out.
+     *
+     * @param board the position the move is played in
+     * @param move  the packed move
+     * @return the material won (positive) or lost (negative) by the mover, in centipawns
+     */
+    public static int evaluate(Board board, int move) {
+        if (Move.isCastle(move)) {
+            return 0;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece mover = board.getPiece(from);
+        int side = mover.getColor().ordinal();
+
+        long occupied = board.getOccupiedMask() ^ Bitboards.bit(from);
+        int gain;
+        if ((Move.flags(move) & Move.EN_PASSANT) != 0) {
+            // The captured pawn stands beside the target square, on the mover's row
+            occupied ^= Bitboards.bit(Bitboards.square(from >>> 3, to & 7));
+            gain = VALUES[PAWN];
+        } else {
+            Piece victim = board.getPiece(to);
+            gain = victim != null ? VALUES[victim.getType().ordinal()] : 0;
+        }
+
+        int standing = VALUES[mover.getType().ordinal()];
+        int promotion = Move.promotion(move);
+        if (promotion != 0) {
+            gain += VALUES[promotion] - VALUES[PAWN];
+            standing = VALUES[promotion];
+        }
+
+        long attackers = board.attackersTo(to, occupied) & occupied;
+        return gain - exchange(board, to, side ^ 1, occupied, attackers, standing);
+    }
+
+    /**
+     * Checks if a move at least breaks even by some margin after the
+     * exchange on its target square.
+     *
+     * @param board     the position the move is played in
+     * @param move      the packed move
+     * @param threshold the material the move must at least win, in centipawns
+     * @return true if evaluate would return threshold or more
+     */
+    public static boolean isAtLeast(Board board, int move, int threshold) {
+        return evaluate(board, move) >= threshold;
+    }
+
+    /**
+     * Finds the pieces of one color that the opponent can win material by
+     * capturing, the usual meaning of "hanging". Kings are never included.
+     *
+     * @param board the position
+     * @param color the color whose pieces to check
+     * @return the mask of hanging pieces
+     */
+    public static long hangingPieces(Board board, PieceColor color) {
+        PieceColor enemy = COLORS[color.ordinal() ^ 1];
+        long pieces = board.getColorMask(color) & ~Bitboards.bit(board.getKingSquare(color));
+        long hanging = 0L;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long attackers = board.attackersTo(square, enemy);
+            if (attackers == 0) {
+                continue;
+            }
+            int from = leastValuable(board, attackers, enemy.ordinal());
+            if (evaluate(board, Move.of(from, square, Move.CAPTURE, 0)) > 0) {
+                hanging |= Bitboards.bit(square);
+            }
+        }
+        return hanging;
+    }
+
+    /**
+     * Plays out the recaptures on a square. The side to capture takes with
+     * its least valuable attacker if that gains anything, and otherwise
+     * stops; the recursion depth is bounded by the number of attackers.
+     *
+     * @param board     the position
+     * @param to        the square being fought over
+     * @param side      the color index to capture next
+     * @param occupied  the squares still occupied
+     * @param attackers the pieces of both colors attacking the square
+     * @param standing  the value of the piece now on the square
+     * @return the material the capturing side can win from here (never negative)
+     */
+    private static int exchange(Board board, int to, int side, long occupied, long attackers, int standing) {
+        long own = attackers & board.getColorMask(COLORS[side]);
+        if (own == 0) {
+            return 0;
+        }
+        int from = leastValuable(board, own, side);
+        int type = board.getPiece(from).getType().ordinal();
+
+        occupied ^= Bitboards.bit(from);
+        attackers = (attackers | xrays(board, to, occupied)) & occupied;
+
+        // The king may only recapture onto a square the enemy no longer attacks
+        if (type == KING && (attackers & board.getColorMask(COLORS[side ^ 1])) != 0) {
+            return 0;
+        }
+        return Math.max(0, standing - exchange(board, to, side ^ 1, occupied, attackers, VALUES[type]));
+    }
+
+    /**
+     * Finds the sliders that attack a square through the given occupancy.
+     */
+    private static long xrays(Board board, int to, long occupied) {
+        long queens = board.getPieceMask(QUEEN) | board.getPieceMask(Board.BLACK_OFFSET + QUEEN);
+        long diagonal = board.getPieceMask(BISHOP) | board.getPieceMask(Board.BLACK_OFFSET + BISHOP) | queens;
+        long straight = board.getPieceMask(ROOK) | board.getPieceMask(Board.BLACK_OFFSET + ROOK) | queens;
+        return (Attacks.bishop(to, occupied) & diagonal) | (Attacks.rook(to, occupied) & straight);
+    }
+
+    /**
+     * Picks the square of the cheapest piece in a mask of one color's pieces.
+     */
+    private static int leastValuable(Board board, long pieces, int side) {
+        for (int type = PAWN; type <= KING; type++) {
+            long ofType = pieces & board.getPieceMask(side * Board.BLACK_OFFSET + type);
+            if (ofType != 0) {
+                return Long.numberOfTrailingZeros(ofType);
+            }
+        }
+        return Long.numberOfTrailingZeros(pieces);
+    }
+}
@@ -0,0 +1,89 @@
+package board;
+
+/**
+ * Random keys for Zobrist hashing of board positions.
+ * A position's key is the XOR of one key per piece on its square, one for
+ * the castling rights, one for the en passant file (if any) and one when
+ * black is to move. Each change to the position flips only the keys it
+ * touches, so Board can keep its hash up to date incrementally.
+ * Keys come from a fixed seed so hashes are stable across runs.
+ */
+public final class Zobrist {
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long SIDE;
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int kind = 0; kind < 12; kind++) {
+            for (int square = 0; square < 64; square++) {
+                seed = nextSeed(seed);
+                PIECES[kind][square] = mix(seed);
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            seed = nextSeed(seed);
+            CASTLING[rights] = mix(seed);
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = nextSeed(seed);
+            EN_PASSANT[file] = mix(seed);
+        }
+        SIDE = mix(nextSeed(seed));
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key for a piece kind standing on a square.
+     *
+     * @param kind   the piece kind (color ordinal * 6 + type ordinal)
+     * @param square the square index
+     * @return the key
+     */
+    public static long piece(int kind, int square) {
+        return PIECES[kind][square];
+    }
+
+    /**
+     * Gets the key for a set of castling rights.
+     *
+     * @param rights the castling rights bitmask (0-15)
+     * @return the key
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * Gets the key for an en passant square, which depends only on its file.
+     *
+     * @param square the en passant square index
+     * @return the key
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT[square & 7];
+    }
+
+    /**
+     * Gets the key XORed in when black is to move.
+     *
+     * @return the key
+     */
+    public static long side() {
+        return SIDE;
+    }
+
+    // SplitMix64 step and finalizer
+    private static long nextSeed(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,105 @@
+package engine;
+
+import board.Board;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Static evaluation of a position in centipawns: material (PieceType
+ * values) plus a piece-square bonus for where each piece stands. Values and
+ * tables are the widely used "simplified evaluation function" ones. Material and placement
+ * are folded into one table per piece kind at startup, so evaluating a
+ * position is one table lookup per piece.
+ */
+public class Evaluator {
+    // Placement bonuses from white's point of view, indexed by square (row 0 is rank 8)
+    private static final int[][] PLACEMENT = {
+            { // Pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0 },
+            { // Knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50 },
+            { // Bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20 },
+            { // Rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0 },
+            { // Queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20 },
+            { // King
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20 }
+    };
+
+    // Material plus placement for each piece kind and square, from white's point of view
+    private static final int[][] SCORES = new int[12][64];
+
+    static {
+        for (PieceType pieceType : PieceType.values()) {
+            int type = pieceType.ordinal();
+            for (int square = 0; square < 64; square++) {
+                SCORES[type][square] = pieceType.getValue() + PLACEMENT[type][square];
+                // Black's tables are white's mirrored top to bottom, and count against white
+                SCORES[Board.BLACK_OFFSET + type][square] = -(pieceType.getValue() + PLACEMENT[type][square ^ 56]);
+            }
+        }
+    }
+
+    /**
+     * Scores a position for the side to move.
+     *
+     * @param board the position
+     * @return the score in centipawns; positive means the side to move is better
+     */
+    public int evaluate(Board board) {
+        int score = 0;
+        for (int kind = 0; kind < 12; kind++) {
+            int[] table = SCORES[kind];
+            long pieces = board.getPieceMask(kind);
+            while (pieces != 0) {
+                score += table[Long.numberOfTrailingZeros(pieces)];
+                pieces &= pieces - 1;
+            }
+        }
+        return board.getSideToMove() == PieceColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,173 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import board.MoveList;
+import pieces.PieceType;
+
+/**
+ * Decides the order in which the search tries moves, since alpha-beta cuts
+ * off most when the best move comes first. In order of priority:
+ *
+ *   the transposition table's best move for the position,
+ *   captures, most valuable victim first and then least valuable attacker
+ *   (MVV-LVA), and promotions,
+ *   the two quiet moves that last caused a cutoff at the same ply (killers),
+ *   other quiet moves by how often they caused cutoffs anywhere in the tree
+ *   (the butterfly history, indexed by side, from and to square).
+ *
+ * Scores are kept in one int array per ply alongside that ply's MoveList,
+ * and moves are picked one at a time, so a cutoff after the first move
+ * skips sorting the rest.
+ */
+public class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 200_000;
+    private static final int PROMOTION_SCORE = 190_000;
+    private static final int FIRST_KILLER_SCORE = 180_000;
+    private static final int SECOND_KILLER_SCORE = 170_000;
+
+    // History scores are halved once one reaches this, keeping them below the killers
+    private static final int HISTORY_LIMIT = 100_000;
+
+    private static final int KING = PieceType.KING.ordinal();
+
+    private final int[][] scores;
+    private final int[][] killers;
+    private final int[][][] history = new int[2][64][64];
+
+    /**
+     * Constructs move ordering tables for a search.
+     *
+     * @param maxPly the number of plies to keep scores and killers for
+     */
+    public MoveOrdering(int maxPly) {
+        this.scores = new int[maxPly][256];
+        this.killers = new int[maxPly][2];
+    }
+
+    /**
+     * Forgets the killers and fades the history before a new search, so old
+     * statistics guide the new search without dominating it.
+     */
+    public void newSearch() {
+        for (int[] slots : killers) {
+            slots[0] = 0;
+            slots[1] = 0;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] >>= 3;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores every move at a ply, ready for next to pick them in order.
+     *
+     * @param board    the position the moves were generated in
+     * @param moves    the legal moves
+     * @param ply      the distance from the root
+     * @param hashMove the transposition table move, or 0 if none
+     */
+    public void score(Board board, MoveList moves, int ply, int hashMove) {
+        int[] plyScores = scores[ply];
+        int side = board.getSideToMove().ordinal();
+        int killer1 = killers[ply][0];
+        int killer2 = killers[ply][1];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                score = CAPTURE_SCORE + mvvLva(board, move);
+            } else if (Move.promotion(move) != 0) {
+                score = PROMOTION_SCORE + Move.promotion(move);
+            } else if (move == killer1) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == killer2) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = history[side][Move.from(move)][Move.to(move)];
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Picks the best-scored move among those not yet tried and swaps it into
+     * place, together with its score.
+     *
+     * @param moves the moves scored by score
+     * @param ply   the distance from the root
+     * @param index the number of moves already tried
+     * @return the move to try next
+     */
+    public int next(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a move that caused a beta cutoff. Quiet moves become the ply's
+     * first killer and gain history in proportion to the depth searched;
+     * captures are already ordered well and are not recorded.
+     *
+     * @param board the position the move was played in
+     * @param move  the packed move
+     * @param ply   the distance from the root
+     * @param depth the remaining depth at the cutoff
+     */
+    public void recordCutoff(Board board, int move, int ply, int depth) {
+        if (Move.isCapture(move) || Move.promotion(move) != 0) {
+            return;
+        }
+        int[] slots = killers[ply];
+        if (slots[0] != move) {
+            slots[1] = slots[0];
+            slots[0] = move;
+        }
+
+        int[] row = history[board.getSideToMove().ordinal()][Move.from(move)];
+        int to = Move.to(move);
+        row[to] += depth * depth;
+        if (row[to] >= HISTORY_LIMIT) {
+            for (int[][] side : history) {
+                for (int[] from : side) {
+                    for (int square = 0; square < 64; square++) {
+                        from[square] >>= 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores a capture by victim first and attacker second: taking a queen
+     * with a pawn comes before taking a queen with a rook, which comes
+     * before taking a rook with anything.
+     */
+    private static int mvvLva(Board board, int move) {
+        int attacker = board.getPiece(Move.from(move)).getType().ordinal();
+        int victim = (Move.flags(move) & Move.EN_PASSANT) != 0 ? PieceType.PAWN.ordinal()
+                : board.getPiece(Move.to(move)).getType().ordinal();
+        return victim * 8 + (KING - attacker) + Move.promotion(move);
+    }
+}
@@ -0,0 +1,130 @@
+package engine;
+
+import board.Board;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a search on several cores with "Lazy SMP": every thread searches the
+ * same root position on its own board copy, and the threads cooperate only
+ * through the shared TranspositionTable. Helpers fill the table with results
+ * the main thread then finds instead of searching. Each helper skips a
+ * different pattern of iteration depths, so at any moment the threads are
+ * searching different depths and spread over different parts of the tree
+ * instead of repeating each other's work.
+ *
+ * Helper boards are full copies, undo history included, so every thread
+ * scores repetitions of earlier game positions the same way before
+ * writing to the shared table.
+ *
+ * The calling thread is the main search and obeys the limits; helpers run
+ * until it finishes, and the reported move, score and principal variation
+ * are the main search's, with the node count summed over all threads.
+ */
+public class ParallelSearch {
+    // Depth skipping pattern per helper (cycled past 20 helpers): runs of
+    // SKIP_SIZE depths are alternately searched and skipped, offset by SKIP_PHASE
+    private static final int[] SKIP_SIZE = { 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4 };
+    private static final int[] SKIP_PHASE = { 0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService pool;
+
+    /**
+     * Constructs a parallel search with its own helper threads.
+     *
+     * @param threads   the total number of search threads, including the caller's
+     * @param evaluator the static evaluation for leaf positions
+     * @param table     the transposition table shared by all threads
+     */
+    public ParallelSearch(int threads, Evaluator evaluator, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.table = table;
+        this.main = new Search(evaluator, table);
+        this.helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(evaluator, table);
+        }
+        this.pool = helpers.length > 0 ? Executors.newFixedThreadPool(helpers.length, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Searches a position for the side to move on all threads. The main
+     * search plays on the board itself and leaves it as it was found; each
+     * helper gets a copy.
+     *
+     * @param board  the position to search
+     * @param limits when the main search stops
+     * @return the main search's result, with the node count of all threads
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        table.newSearch();
+        main.clearStop();
+
+        SearchLimits helperLimits = SearchLimits.depth(SearchLimits.MAX_DEPTH);
+        List<Future<SearchResult>> running = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            Board copy = new Board(board);
+            int skipSize = SKIP_SIZE[i % SKIP_SIZE.length];
+            int skipPhase = SKIP_PHASE[i % SKIP_PHASE.length];
+            helper.clearStop();
+            running.add(pool.submit(() -> helper.iterate(copy, helperLimits, skipSize, skipPhase)));
+        }
+
+        SearchResult result = main.iterate(board, limits, 0, 0);
+
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        long nodes = result.getNodes();
+        for (Future<SearchResult> future : running) {
+            try {
+                nodes += future.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                result.getMillis(), result.getPrincipalVariation());
+    }
+
+    /**
+     * Asks a running search to stop. It may be called from another thread.
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * Gets the total number of search threads.
+     *
+     * @return the helpers plus the calling thread
+     */
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Stops the helper threads.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
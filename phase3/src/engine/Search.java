@@ -0,0 +1,425 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import board.MoveList;
+import board.StaticExchange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the best move in a position with a negamax alpha-beta search under
+ * iterative deepening: it searches to depth 1, 2, 3 and so on until a limit
+ * is reached, and reports the result of the last iteration that finished.
+ * Results are kept in a TranspositionTable: a position reached again by a
+ * different move order, or in the next iteration, can return its stored
+ * score, and otherwise its stored best move is searched first. The other
+ * moves follow in MoveOrdering's order, which is what lets alpha-beta cut
+ * most of the tree.
+ *
+ * At the horizon a quiescence search keeps resolving captures and
+ * promotions until the position is quiet, so a leaf is never scored in the
+ * middle of an exchange. Captures that StaticExchange says lose material
+ * are skipped there.
+ *
+ * The search plays moves on the board with makeMove and unmakeMove and
+ * keeps one move buffer per ply, so it does not allocate while searching.
+ *
+ * Usage:
+ *   java -cp bin engine.Search [--depth n] [--nodes n] [--millis n] [--hash mb] [--threads n] [fen]
+ *
+ * With "--threads n" the search runs on n cores (see ParallelSearch).
+ */
+public class Search {
+    /** The score of delivering checkmate now; mate in n plies scores MATE_SCORE - n. */
+    public static final int MATE_SCORE = 32000;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+
+    /** The transposition table size used when none is given, in MB. */
+    public static final int DEFAULT_HASH_MB = 16;
+
+    // Deepest ply the buffers allow: the deepest iteration plus as many quiescence plies
+    private static final int MAX_PLY = 2 * SearchLimits.MAX_DEPTH;
+
+    // Scores at least this far from zero are mates, stored relative to the node in the table
+    private static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+
+    // The clock and stop flag are only read once per this many nodes (a power of two)
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+
+    // One move buffer per ply so searching never allocates
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+
+    // Triangular principal variation table: row ply holds the best line from that ply
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private Board board;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean canStop;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+
+    /**
+     * Constructs a search with the default evaluation and its own
+     * transposition table. A search is not thread safe; use one per thread.
+     */
+    public Search() {
+        this(new Evaluator(), new TranspositionTable(DEFAULT_HASH_MB));
+    }
+
+    /**
+     * Constructs a search with its own move buffers. The transposition table
+     * may be shared with searches on other threads.
+     *
+     * @param evaluator the static evaluation for leaf positions
+     * @param table     the transposition table
+     */
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches a position for the side to move. Moves are played on the
+     * board itself, so repetitions of positions earlier in the game are seen
+     * as draws; the board is left as it was found. The first iteration
+     * always finishes, so a legal position with legal moves always gets a
+     * best move.
+     *
+     * @param board  the position to search
+     * @param limits when to stop
+     * @return the best move, its score and the principal variation
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        stopRequested = false;
+        table.newSearch();
+        return iterate(board, limits, 0, 0);
+    }
+
+    /**
+     * Runs the iterative deepening loop, optionally skipping some depths.
+     * Depths are skipped in runs of skipSize, offset by skipPhase: with size
+     * 2 and phase 1 the search runs depths 3, 4, 7, 8 and so on. Unlike
+     * search, it neither clears a pending stop request nor starts a new
+     * table age, so ParallelSearch can set both up once for all its threads.
+     *
+     * @param board     the position to search
+     * @param limits    when to stop
+     * @param skipSize  the length of each run of searched or skipped depths, or 0 to search every depth
+     * @param skipPhase the offset of the runs
+     * @return the result of the last completed iteration
+     */
+    SearchResult iterate(Board board, SearchLimits limits, int skipSize, int skipPhase) {
+        this.board = board;
+        long start = System.nanoTime();
+        nodes = 0;
+        maxNodes = limits.getMaxNodes();
+        long budget = limits.getMaxMillis();
+        deadline = budget >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : start + budget * 1_000_000;
+        canStop = false;
+        aborted = false;
+        ordering.newSearch();
+
+        int[] pv = new int[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+            if (skipSize > 0 && ((depth + skipPhase) / skipSize) % 2 != 0) {
+                continue;
+            }
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            bestScore = score;
+            completedDepth = depth;
+            pv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            canStop = true;
+
+            // A forced mate inside the full-width horizon cannot be improved on
+            if (Math.abs(score) >= MATE_SCORE - depth || pvLength[0] == 0) {
+                break;
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        int bestMove = pv.length > 0 ? pv[0] : 0;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, millis, pv);
+    }
+
+    /**
+     * Asks a running search to stop. It may be called from another thread;
+     * the search returns the result of its last completed iteration.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Withdraws a stop request, before handing this search to a helper thread.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Searches the current position to a fixed depth.
+     *
+     * @param depth the remaining depth in plies
+     * @param ply   the distance from the root
+     * @param alpha the score the side to move is already sure of
+     * @param beta  the score the opponent will not allow to be exceeded
+     * @return the score for the side to move
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (limitReached()) {
+            return 0;
+        }
+
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || board.repetitionCount() > 0
+                || board.isInsufficientMaterial())) {
+            return 0;
+        }
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta);
+        }
+
+        long hash = board.hashKey();
+        long entry = table.probe(hash);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT
+                    || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                    || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        board.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return board.isCheck(board.getSideToMove()) ? -MATE_SCORE + ply : 0;
+        }
+        ordering.score(board, moves, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, ply, i);
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    bestMove = move;
+                    alpha = score;
+                    pvTable[ply][ply] = move;
+                    System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+                    pvLength[ply] = pvLength[ply + 1];
+                    if (alpha >= beta) {
+                        ordering.recordCutoff(board, move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(hash, bestMove, scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions only, until the position is quiet.
+     * The side to move may "stand pat" on the static evaluation instead of
+     * capturing, since it is never forced to capture; in check it must
+     * answer the check, so every evasion is searched instead.
+     *
+     * @param ply   the distance from the root
+     * @param alpha the score the side to move is already sure of
+     * @param beta  the score the opponent will not allow to be exceeded
+     * @return the score for the side to move
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (limitReached()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board);
+        }
+
+        boolean inCheck = board.isCheck(board.getSideToMove());
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluator.evaluate(board);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveLists[ply];
+        board.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+        ordering.score(board, moves, ply, 0);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, ply, i);
+            if (!inCheck) {
+                // Quiet moves and under-promotions can wait; so can captures that lose material
+                boolean queening = Move.promotion(move) == Move.PROMOTE_QUEEN;
+                if (!Move.isCapture(move) && !queening) {
+                    continue;
+                }
+                if (Move.isCapture(move) && !queening && !StaticExchange.isAtLeast(board, move, 0)) {
+                    continue;
+                }
+            }
+
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    pvTable[ply][ply] = move;
+                    System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+                    pvLength[ply] = pvLength[ply + 1];
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the node, time and stop limits, reading the
+     * clock only once per CHECK_INTERVAL nodes. The first iteration is never
+     * cut short.
+     *
+     * @return true if the search must unwind now
+     */
+    private boolean limitReached() {
+        nodes++;
+        if (canStop && (nodes >= maxNodes || ((nodes & (CHECK_INTERVAL - 1)) == 0
+                && (stopRequested || System.nanoTime() >= deadline)))) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Converts a mate score from distance-to-root to distance-to-node for
+     * storing, so it stays right when the position is reached at another ply.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back to distance-to-root.
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args the limits and position (see the class comment)
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        try {
+            long depth = takeOption(arguments, "--depth", -1);
+            long nodes = takeOption(arguments, "--nodes", Long.MAX_VALUE);
+            long millis = takeOption(arguments, "--millis", Long.MAX_VALUE);
+            long hashMegabytes = takeOption(arguments, "--hash", DEFAULT_HASH_MB);
+            long threads = takeOption(arguments, "--threads", 1);
+            if (depth < 0) {
+                depth = nodes == Long.MAX_VALUE && millis == Long.MAX_VALUE ? 6 : SearchLimits.MAX_DEPTH;
+            }
+            Board board = arguments.isEmpty() ? new Board() : new Board(String.join(" ", arguments));
+
+            TranspositionTable table = new TranspositionTable((int) hashMegabytes);
+            SearchLimits limits = new SearchLimits((int) depth, nodes, millis);
+            SearchResult result;
+            if (threads > 1) {
+                ParallelSearch parallel = new ParallelSearch((int) threads, new Evaluator(), table);
+                result = parallel.search(board, limits);
+                parallel.shutdown();
+            } else {
+                result = new Search(new Evaluator(), table).search(board, limits);
+            }
+            System.out.println(result);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Removes a numeric option such as "--depth 8" from the arguments.
+     *
+     * @param arguments    the command-line arguments, modified in place
+     * @param name         the option name
+     * @param defaultValue the value to use if the option is absent
+     * @return the option's value
+     */
+    private static long takeOption(List<String> arguments, String name, long defaultValue) {
+        int index = arguments.indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        if (index + 1 >= arguments.size()) {
+            throw new IllegalArgumentException(name + " needs a value");
+        }
+        long value = Long.parseLong(arguments.get(index + 1));
+        arguments.subList(index, index + 2).clear();
+        return value;
+    }
+}
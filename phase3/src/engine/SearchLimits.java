@@ -0,0 +1,73 @@
+package engine;
+
+/**
+ * Limits on a search: the deepest iteration to run, the most nodes to visit
+ * and the longest time to take. The search stops at whichever it reaches
+ * first and reports the best move from the last completed iteration.
+ */
+public class SearchLimits {
+    /** The deepest iteration the search supports. */
+    public static final int MAX_DEPTH = 64;
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long maxMillis;
+
+    /**
+     * Creates search limits.
+     *
+     * @param maxDepth  the deepest iteration (1 to MAX_DEPTH)
+     * @param maxNodes  the node budget, or Long.MAX_VALUE for none
+     * @param maxMillis the time budget in milliseconds, or Long.MAX_VALUE for none
+     */
+    public SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH);
+        }
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Limits a search to a fixed depth.
+     *
+     * @param depth the depth in plies
+     * @return the limits
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Limits a search to a number of nodes.
+     *
+     * @param nodes the node budget
+     * @return the limits
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, nodes, Long.MAX_VALUE);
+    }
+
+    /**
+     * Limits a search to an amount of time.
+     *
+     * @param millis the time budget in milliseconds
+     * @return the limits
+     */
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, millis);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,95 @@
+package engine;
+
+import board.Move;
+
+/**
+ * The outcome of a search: the best move found, its score, the principal
+ * variation (the line both sides are expected to play) and search
+ * statistics.
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+    private final int[] principalVariation;
+
+    /**
+     * Creates a search result.
+     *
+     * @param bestMove           the best packed move, or 0 if there is no legal move
+     * @param score              the score in centipawns for the side to move
+     * @param depth              the depth of the last completed iteration
+     * @param nodes              the number of nodes visited
+     * @param millis             the time taken in milliseconds
+     * @param principalVariation the expected line of packed moves, best move first
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long millis, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+        this.principalVariation = principalVariation;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    /**
+     * Checks if the score is a forced mate for either side.
+     *
+     * @return true if the score is a mate score
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_SCORE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /**
+     * Gets the number of nodes searched per second.
+     *
+     * @return the search speed
+     */
+    public long getNodesPerSecond() {
+        return millis > 0 ? nodes * 1000 / millis : nodes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        for (int move : principalVariation) {
+            line.append(' ').append(Move.toString(move));
+        }
+        String value;
+        if (isMate()) {
+            int plies = Search.MATE_SCORE - Math.abs(score);
+            value = "mate " + (score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            value = "cp " + score;
+        }
+        return "depth " + depth + " score " + value + " nodes " + nodes + " time " + millis + " ms nps "
+                + getNodesPerSecond() + " pv" + line;
+    }
+}
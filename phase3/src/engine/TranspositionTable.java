@@ -0,0 +1,206 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of search results, keyed by position hash, that any
+ * number of search threads can share without locking.
+ *
+ * Entries use the same two-long, XOR-verified layout as perft.PerftHashTable,
+ * which explains why torn writes read as misses; here the data word packs
+ * the best move, score, depth, bound type and search age. Unlike the perft
+ * table, which keeps one entry per slot, entries are grouped in buckets of
+ * four, 64 bytes, so a probe reads one cache line and a position can stay
+ * while others with the same index come and go. When a bucket is full, the
+ * entry that is shallowest and from the oldest search is replaced.
+ *
+ * probe returns the packed data as a long and the static accessors unpack
+ * it, so neither probing nor storing allocates.
+ */
+public class TranspositionTable {
+    /** The score is exact. */
+    public static final int BOUND_EXACT = 3;
+    /** The score is a lower bound: the search failed high on it. */
+    public static final int BOUND_LOWER = 1;
+    /** The score is an upper bound: no move beat alpha. */
+    public static final int BOUND_UPPER = 2;
+
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int LONGS_PER_BUCKET = ENTRIES_PER_BUCKET * 2;
+
+    // Data layout: move in bits 0-19, score 20-35, depth 36-43, bound 44-45, age 46-53
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int AGE_SHIFT = 46;
+    private static final long MOVE_MASK = (1L << SCORE_SHIFT) - 1;
+
+    private final long[] table;
+    private final int mask;
+
+    // Bumped once per search so entries from earlier searches are replaced first
+    private volatile int age;
+
+    /**
+     * Constructs a table using about the given amount of memory, rounded
+     * down to a power-of-two number of buckets.
+     *
+     * @param megabytes the table size in MB (at least 1)
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Hash size must be at least 1 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (LONGS_PER_BUCKET * 8));
+        // 2^27 buckets of eight longs is the largest power-of-two array Java allows
+        buckets = Math.min(buckets, 1L << 27);
+        this.table = new long[(int) buckets * LONGS_PER_BUCKET];
+        this.mask = (int) buckets - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param hash the position's Zobrist key
+     * @return the packed entry data (see move, score, depth and bound), or 0 if the position is not in the table
+     */
+    public long probe(long hash) {
+        int bucket = bucket(hash);
+        for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == hash) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position. An existing entry for the
+     * same position is overwritten; otherwise the bucket's empty, oldest or
+     * shallowest entry makes room.
+     *
+     * @param hash  the position's Zobrist key
+     * @param move  the best packed move found, or 0 if none
+     * @param score the score, with mate scores relative to this position
+     * @param depth the depth searched (0-255)
+     * @param bound BOUND_EXACT, BOUND_LOWER or BOUND_UPPER
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int bucket = bucket(hash);
+        int currentAge = age;
+        int victim = bucket;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += 2) {
+            long old = table[i + 1];
+            if (old == 0 || (table[i] ^ old) == hash) {
+                victim = i;
+                // Keep the old best move when this search did not find one
+                if (move == 0 && old != 0) {
+                    move = move(old);
+                }
+                break;
+            }
+            // Each search of age counts as much as eight plies of depth
+            int worth = depth(old) - 8 * ((currentAge - (int) (old >>> AGE_SHIFT)) & 0xFF);
+            if (worth < victimWorth) {
+                victimWorth = worth;
+                victim = i;
+            }
+        }
+
+        long data = (move & MOVE_MASK)
+                | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) currentAge << AGE_SHIFT);
+        table[victim] = hash ^ data;
+        table[victim + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries left by earlier searches
+     * are the first to be replaced.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /**
+     * Gets the number of entries the table can hold.
+     *
+     * @return the entry count
+     */
+    public int capacity() {
+        return (mask + 1) * ENTRIES_PER_BUCKET;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first buckets.
+     *
+     * @return the share of sampled entries in use by the current search, in permille
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * 2 + 1];
+            if (data != 0 && (int) (data >>> AGE_SHIFT) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Gets the best move of a probed entry.
+     *
+     * @param data the packed entry data
+     * @return the packed move, or 0 if none was stored
+     */
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    /**
+     * Gets the score of a probed entry.
+     *
+     * @param data the packed entry data
+     * @return the stored score
+     */
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Gets the searched depth of a probed entry.
+     *
+     * @param data the packed entry data
+     * @return the depth in plies
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Gets the bound type of a probed entry.
+     *
+     * @param data the packed entry data
+     * @return BOUND_EXACT, BOUND_LOWER or BOUND_UPPER
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private int bucket(long hash) {
+        return ((int) hash & mask) * LONGS_PER_BUCKET;
+    }
+}
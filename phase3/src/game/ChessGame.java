@@ -1,12 +1,12 @@
 package game;
 
 import board.Board;
+import board.BoardListener;
 import pieces.Piece;
+import pieces.PieceColor;
 import gui.ChessGUI;
 import utils.Position;
 import javax.swing.JOptionPane;
-import java.util.Deque;
-import java.util.ArrayDeque;
 
 /**
  * PHASE 3: Chess Game with FULL rules implementation
@@ -15,46 +15,45 @@ import java.util.ArrayDeque;
 
 public class ChessGame {
     private Board board;
-    private String currentTurn;
     private boolean gameActive;
     private ChessGUI gui;
 
-    /**
-     * Stores the information needed to undo a single move.
-     */
-    private static class MoveRecord {
-        private final Position from;
-        private final Position to;
-        private final Piece movedPiece;
-        private final Piece capturedPiece;
-        private final String turnBeforeMove;
-
-        public MoveRecord(Position from, Position to,
-                Piece movedPiece, Piece capturedPiece,
-                String turnBeforeMove) {
-            this.from = from;
-            this.to = to;
-            this.movedPiece = movedPiece;
-            this.capturedPiece = capturedPiece;
-            this.turnBeforeMove = turnBeforeMove;
-        }
+    // Status of the current position, recomputed once whenever it changes
+    private GameStatus status;
+
+    // Told about captures, promotions and rejected moves on every board this game uses
+    private BoardListener boardListener;
+
+    public ChessGame() {
+        this(new Board());
     }
 
     /**
-     * Stack of moves to support undo functionality.
+     * Creates a game that continues from an existing position.
+     *
+     * @param board the board to play on
      */
-    private final Deque<MoveRecord> moveHistory = new ArrayDeque<>();
-
-    public ChessGame() {
-        this.board = new Board();
-        this.currentTurn = "white";
+    public ChessGame(Board board) {
+        this.board = board;
         this.gameActive = true;
+        this.status = computeStatus();
     }
 
     public void setGui(ChessGUI gui) {
         this.gui = gui;
     }
 
+    /**
+     * Sets the listener for board events (captures, promotions, moves that
+     * would leave the king in check). It stays installed across new games.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setBoardListener(BoardListener listener) {
+        this.boardListener = listener;
+        board.setListener(listener);
+    }
+
     /**
      * PHASE 3: Makes a move with FULL validation
      * - Enforces turn-based play
@@ -66,7 +65,7 @@ public class ChessGame {
             return false;
         }
 
-        Piece piece = board.getPiece(from);
+        Piece piece = board.getPiece(from.getIndex());
 
         // Check if there's a piece at the starting position
         if (piece == null) {
@@ -74,31 +73,28 @@ public class ChessGame {
         }
 
         // PHASE 3: Enforce turn-based play
-        if (!piece.getColor().equals(currentTurn)) {
-            JOptionPane.showMessageDialog(null,
-                    "It's " + currentTurn + "'s turn!",
-                    "Wrong Turn",
-                    JOptionPane.WARNING_MESSAGE);
+        PieceColor currentTurn = board.getSideToMove();
+        if (piece.getColor() != currentTurn) {
+            // Messages are only built when there is a GUI to show them
+            if (gui != null) {
+                showMessage("It's " + currentTurn + "'s turn!",
+                        "Wrong Turn",
+                        JOptionPane.WARNING_MESSAGE);
+            }
             return false;
         }
 
-        // Capture any piece currently on the destination square (before moving)
-        Piece capturedPiece = board.getPiece(to);
-
         // Attempt the move with full validation
-        boolean moveSuccessful = board.movePiece(from, to);
+        boolean moveSuccessful = board.movePiece(from.getIndex(), to.getIndex());
 
         if (moveSuccessful) {
-            // Record this move so it can be undone later
-            moveHistory.push(new MoveRecord(from, to, piece, capturedPiece, currentTurn));
-
-            // Switch turns
-            currentTurn = currentTurn.equals("white") ? "black" : "white";
+            // The board records the move for undo and switches turns
+            status = computeStatus();
+            currentTurn = status.getSideToMove();
 
             // Check for check on the opponent
-            if (board.isCheck(currentTurn)) {
-                JOptionPane.showMessageDialog(null,
-                        currentTurn + " is in check!",
+            if (status.isInCheck() && gui != null) {
+                showMessage(currentTurn + " is in check!",
                         "Check!",
                         JOptionPane.WARNING_MESSAGE);
             }
@@ -106,26 +102,65 @@ public class ChessGame {
             return true;
         } else {
             // Move was invalid
-            JOptionPane.showMessageDialog(null,
-                    "Invalid move! Please try again.",
+            showMessage("Invalid move! Please try again.",
                     "Invalid Move",
                     JOptionPane.ERROR_MESSAGE);
             return false;
         }
     }
 
+    /**
+     * Shows a message dialog to the player. Games without a GUI attached
+     * (for example on a server or in benchmarks) run headless and skip it.
+     *
+     * @param message the message text
+     * @param title   the dialog title
+     * @param type    the JOptionPane message type
+     */
+    private void showMessage(String message, String title, int type) {
+        if (gui != null) {
+            JOptionPane.showMessageDialog(null, message, title, type);
+        }
+    }
+
+    /**
+     * Works out the status of the current position. The legal moves are
+     * generated once, and later checkmate, stalemate and move-highlighting
+     * queries on the same position are served from the board's cache.
+     *
+     * @return the status for the side to move
+     */
+    private GameStatus computeStatus() {
+        PieceColor side = board.getSideToMove();
+        return new GameStatus(side,
+                board.isCheck(side),
+                board.legalMoveCount(),
+                board.getHalfmoveClock() >= 100,
+                board.repetitionCount() >= 2,
+                board.isInsufficientMaterial());
+    }
+
+    /**
+     * Gets the status of the current position.
+     *
+     * @return the status after the last move
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
     /**
      * Starts a new game, resetting the board and game state.
      */
     public void newGame() {
         this.board = new Board();
-        this.currentTurn = "white";
+        this.board.setListener(boardListener);
         this.gameActive = true;
-        this.moveHistory.clear();
+        this.status = computeStatus();
     }
 
-    public String getCurrentTurn() {
-        return currentTurn;
+    public PieceColor getCurrentTurn() {
+        return board.getSideToMove();
     }
 
     public Board getBoard() {
@@ -136,28 +171,28 @@ public class ChessGame {
      * PHASE 3: Checks if the game has ended in checkmate
      */
     public boolean isCheckmate() {
-        return board.isCheckmate(currentTurn);
+        return status.isCheckmate();
     }
 
     /**
      * PHASE 3: Checks if the game has ended in stalemate
      */
     public boolean isStalemate() {
-        return board.isStalemate(currentTurn);
+        return status.isStalemate();
     }
 
     /**
      * PHASE 3: Checks if the current player is in check
      */
     public boolean isInCheck() {
-        return board.isCheck(currentTurn);
+        return status.isInCheck();
     }
 
     public boolean isKingCaptured() {
         return board.isKingCaptured();
     }
 
-    public String getWinner() {
+    public PieceColor getWinner() {
         return board.getWinner();
     }
 
@@ -175,21 +210,14 @@ public class ChessGame {
      * @return true if a move was undone, false if there was no move to undo
      */
     public boolean undoMove() {
-        if (moveHistory.isEmpty()) {
+        if (!board.canUndo()) {
             return false;
         }
 
-        MoveRecord last = moveHistory.pop();
-
-        // Restore the moved piece back to its original position
-        board.setPiece(last.from, last.movedPiece);
-
-        // Restore the captured piece (if any) to the destination square,
-        // otherwise clear that square.
-        board.setPiece(last.to, last.capturedPiece);
-
-        // Restore whose turn it was before the move
-        this.currentTurn = last.turnBeforeMove;
+        // Take back the last move, restoring captured pieces, castling rights,
+        // promotions and whose turn it was
+        board.unmakeMove();
+        status = computeStatus();
 
         // Make sure the game is active again
         this.gameActive = true;
@@ -0,0 +1,29 @@
+package game;
+
+import board.BoardListener;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Prints board events to the terminal, as the game has always done for
+ * captures, promotions and moves that would put the king in check.
+ */
+public class ConsoleBoardListener implements BoardListener {
+
+    @Override
+    public void pieceCaptured(Piece attacker, Piece captured, int square) {
+        System.out.println(attacker.getColor() + " " + attacker.getType().getName() + " captures "
+                + captured.getColor() + " " + captured.getType().getName() + "!");
+    }
+
+    @Override
+    public void pawnPromoted(PieceColor color, PieceType type, int square) {
+        System.out.println(color + " pawn promoted to " + type.getName() + "!");
+    }
+
+    @Override
+    public void moveLeavesKingInCheck(int from, int to) {
+        System.out.println("Invalid move: Would put your king in check!");
+    }
+}
@@ -0,0 +1,110 @@
+package game;
+
+import pieces.PieceColor;
+
+/**
+ * The state of a game after a move, worked out in one pass over the legal
+ * moves: whose turn it is, whether they are in check, how many legal moves
+ * they have, and whether the game is over by checkmate, stalemate or one of
+ * the draw rules.
+ */
+public class GameStatus {
+    private final PieceColor sideToMove;
+    private final boolean inCheck;
+    private final int legalMoveCount;
+    private final boolean fiftyMoveRule;
+    private final boolean threefoldRepetition;
+    private final boolean insufficientMaterial;
+
+    /**
+     * Creates a status.
+     *
+     * @param sideToMove           the color whose turn it is
+     * @param inCheck              true if that color's king is attacked
+     * @param legalMoveCount       the number of legal moves for that color
+     * @param fiftyMoveRule        true if 50 moves have passed without a capture or pawn move
+     * @param threefoldRepetition  true if the position has occurred three times
+     * @param insufficientMaterial true if neither side can checkmate
+     */
+    public GameStatus(PieceColor sideToMove, boolean inCheck, int legalMoveCount, boolean fiftyMoveRule,
+            boolean threefoldRepetition, boolean insufficientMaterial) {
+        this.sideToMove = sideToMove;
+        this.inCheck = inCheck;
+        this.legalMoveCount = legalMoveCount;
+        this.fiftyMoveRule = fiftyMoveRule;
+        this.threefoldRepetition = threefoldRepetition;
+        this.insufficientMaterial = insufficientMaterial;
+    }
+
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public int getLegalMoveCount() {
+        return legalMoveCount;
+    }
+
+    /**
+     * Checks if the side to move is checkmated.
+     *
+     * @return true if in check with no legal moves
+     */
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * Checks if the side to move is stalemated.
+     *
+     * @return true if not in check but with no legal moves
+     */
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return fiftyMoveRule;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return threefoldRepetition;
+    }
+
+    public boolean isInsufficientMaterial() {
+        return insufficientMaterial;
+    }
+
+    /**
+     * Checks if any draw rule applies (stalemate, fifty moves, repetition or
+     * insufficient material).
+     *
+     * @return true if the game is drawn or a draw can be claimed
+     */
+    public boolean isDraw() {
+        return isStalemate() || fiftyMoveRule || threefoldRepetition || insufficientMaterial;
+    }
+
+    /**
+     * Gets the winner if the game ended in checkmate.
+     *
+     * @return the color that delivered mate, or null if there is none
+     */
+    public PieceColor getWinner() {
+        return isCheckmate() ? sideToMove.opposite() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "GameStatus[" + sideToMove + " to move, " + legalMoveCount + " legal moves"
+                + (inCheck ? ", in check" : "")
+                + (isCheckmate() ? ", checkmate" : "")
+                + (isStalemate() ? ", stalemate" : "")
+                + (fiftyMoveRule ? ", fifty-move rule" : "")
+                + (threefoldRepetition ? ", threefold repetition" : "")
+                + (insufficientMaterial ? ", insufficient material" : "") + "]";
+    }
+}
@@ -1,22 +1,28 @@
 package gui;
 
 import board.Board;
+import board.Move;
+import board.MoveList;
 import game.ChessGame;
+import game.GameStatus;
 import pieces.Piece;
 import utils.Position;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.List;
 
 public class BoardPanel extends JPanel {
     private ChessGame chessGame;
     private ChessGUI chessGUI;
     private JLabel[][] squares;
     private Position selectedSquare;
+    private final MoveList legalMoves = new MoveList();
 
     private static final int BOARD_SIZE = 8;
     private static final int SQUARE_SIZE = 80;
+    private static final Color TARGET_COLOR = new Color(144, 238, 144);
 
     public BoardPanel(ChessGame chessGame, ChessGUI chessGUI) {
         this.chessGame = chessGame;
@@ -72,21 +78,22 @@ public class BoardPanel extends JPanel {
     }
 
     private void handleSquareClick(int row, int col) {
-        Position clickedPosition = new Position(row, col);
+        Position clickedPosition = Position.of(row, col);
 
         if (selectedSquare == null) {
             // First click - select piece
             Piece piece = chessGame.getBoard().getPiece(clickedPosition);
-            if (piece != null && piece.getColor().equals(chessGame.getCurrentTurn())) {
+            if (piece != null && piece.getColor() == chessGame.getCurrentTurn()) {
                 selectedSquare = clickedPosition;
                 highlightSquare(row, col, true);
+                highlightLegalTargets(clickedPosition.getIndex());
             }
         } else {
             // Second click - attempt move
             if (!selectedSquare.equals(clickedPosition)) {
                 // Get piece info BEFORE making the move
                 Piece movingPiece = chessGame.getBoard().getPiece(selectedSquare);
-                Piece targetPiece = chessGame.getBoard().getPiece(clickedPosition);
+                int capturesBefore = chessGame.getBoard().getCapturedPieces().size();
 
                 boolean moveSuccessful = chessGame.makeMove(selectedSquare, clickedPosition);
 
@@ -95,21 +102,24 @@ public class BoardPanel extends JPanel {
                     String moveDescription = formatMove(movingPiece, selectedSquare, clickedPosition);
                     chessGUI.addMoveToHistory(moveDescription);
 
-                    // If there was a capture, add to captured pieces
-                    if (targetPiece != null) {
+                    // If there was a capture, add to captured pieces (en passant
+                    // takes a pawn off a square other than the target, so ask the board)
+                    List<Piece> captured = chessGame.getBoard().getCapturedPieces();
+                    if (captured.size() > capturesBefore) {
+                        Piece targetPiece = captured.get(captured.size() - 1);
                         String captureText = targetPiece.getColor() + " " +
-                                targetPiece.getClass().getSimpleName();
+                                targetPiece.getType().getName();
                         chessGUI.addCapturedPiece(captureText);
                     }
 
                     updateBoard();
 
                     // PHASE 3: Check for game-ending conditions
-                    if (chessGame.isCheckmate()) {
-                        String winner = chessGame.getCurrentTurn().equals("white") ? "black" : "white";
-                        chessGUI.showGameOver("Checkmate! " + winner + " wins!");
+                    GameStatus status = chessGame.getStatus();
+                    if (status.isCheckmate()) {
+                        chessGUI.showGameOver("Checkmate! " + status.getWinner() + " wins!");
                         chessGame.endGame();
-                    } else if (chessGame.isStalemate()) {
+                    } else if (status.isStalemate()) {
                         chessGUI.showGameOver("Stalemate! The game is a draw.");
                         chessGame.endGame();
                     } else if (chessGame.isKingCaptured()) {
@@ -118,11 +128,11 @@ public class BoardPanel extends JPanel {
                     }
                 }
 
-                highlightSquare(selectedSquare.getRow(), selectedSquare.getCol(), false);
+                updateBoardColors();
                 selectedSquare = null;
             } else {
                 // Clicked same square - deselect
-                highlightSquare(row, col, false);
+                updateBoardColors();
                 selectedSquare = null;
             }
         }
@@ -134,13 +144,28 @@ public class BoardPanel extends JPanel {
         squares[row][col].setBackground(highlightColor);
     }
 
+    /**
+     * Highlights every square the selected piece can legally move to.
+     *
+     * @param from the selected square index
+     */
+    private void highlightLegalTargets(int from) {
+        chessGame.getBoard().cachedLegalMoves(legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.from(move) == from) {
+                int to = Move.to(move);
+                squares[to / BOARD_SIZE][to % BOARD_SIZE].setBackground(TARGET_COLOR);
+            }
+        }
+    }
+
     public void updateBoard() {
         Board board = chessGame.getBoard();
 
         for (int row = 0; row < BOARD_SIZE; row++) {
             for (int col = 0; col < BOARD_SIZE; col++) {
-                Position position = new Position(row, col);
-                Piece piece = board.getPiece(position);
+                Piece piece = board.getPiece(row * BOARD_SIZE + col);
                 JLabel square = squares[row][col];
 
                 // Reset to correct color
@@ -181,7 +206,7 @@ public class BoardPanel extends JPanel {
     }
 
     private String formatMove(Piece piece, Position from, Position to) {
-        String pieceName = piece != null ? piece.getClass().getSimpleName() : "Piece";
+        String pieceName = piece != null ? piece.getType().getName() : "Piece";
         return pieceName + " " + from.toString() + " → " + to.toString();
     }
 }
@@ -1,6 +1,8 @@
 package gui;
 
 import game.ChessGame;
+import game.ConsoleBoardListener;
+import pieces.PieceColor;
 import javax.swing.*;
 import java.awt.*;
 
@@ -24,6 +26,7 @@ public class ChessGUI extends JFrame {
     private void initializeGame() {
         chessGame = new ChessGame();
         chessGame.setGui(this);
+        chessGame.setBoardListener(new ConsoleBoardListener());
     }
 
     private void initializeGUI() {
@@ -107,10 +110,10 @@ public class ChessGUI extends JFrame {
             return;
         }
 
-        String currentTurn = chessGame.getCurrentTurn();
+        PieceColor currentTurn = chessGame.getCurrentTurn();
         turnLabel.setText("Current Turn: " +
-                (currentTurn.equals("white") ? "White" : "Black"));
-        turnLabel.setForeground(currentTurn.equals("white") ? Color.BLACK : Color.BLUE);
+                (currentTurn == PieceColor.WHITE ? "White" : "Black"));
+        turnLabel.setForeground(currentTurn == PieceColor.WHITE ? Color.BLACK : Color.BLUE);
     }
 
     public void addMoveToHistory(String moveDescription) {
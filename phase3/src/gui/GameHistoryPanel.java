@@ -167,7 +167,7 @@ public class GameHistoryPanel extends JPanel {
     public void refreshCapturedPieces() {
         capturedPiecesModel.clear();
         for (Piece piece : chessGame.getBoard().getCapturedPieces()) {
-            String captureText = piece.getColor() + " " + piece.getClass().getSimpleName();
+            String captureText = piece.getColor() + " " + piece.getType().getName();
             capturedPiecesModel.addElement(captureText);
         }
     }
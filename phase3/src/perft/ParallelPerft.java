@@ -0,0 +1,122 @@
+package perft;
+
+import board.Board;
+import board.BoardSnapshot;
+import board.MoveList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs perft on several cores by splitting the first plies of the move tree
+ * into fork-join tasks. Each task builds its own board from a snapshot of
+ * its position and counts the subtree below it with its thread's Perft
+ * counter, so workers share nothing but an optional PerftHashTable and the
+ * total is identical to a serial run.
+ */
+public class ParallelPerft {
+    // Plies split into tasks: the root alone has too few moves to keep many cores busy
+    private static final int SPLIT_PLIES = 2;
+
+    private final ForkJoinPool pool;
+
+    // One counter per worker thread, reused across tasks
+    private final ThreadLocal<Perft> counters;
+
+    /**
+     * Constructs a parallel perft counter with its own worker pool.
+     *
+     * @param threads the number of worker threads
+     */
+    public ParallelPerft(int threads) {
+        this(threads, null);
+    }
+
+    /**
+     * Constructs a parallel perft counter whose workers share one hash table
+     * of subtree counts.
+     *
+     * @param threads the number of worker threads
+     * @param table   the shared subtree count cache, or null for none
+     */
+    public ParallelPerft(int threads, PerftHashTable table) {
+        this.pool = new ForkJoinPool(threads);
+        this.counters = ThreadLocal.withInitial(() -> new Perft(table));
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below a position.
+     * The board itself is not modified.
+     *
+     * @param board the position to count from
+     * @param depth the number of plies to search
+     * @return the number of leaf nodes
+     */
+    public long perft(Board board, int depth) {
+        return pool.invoke(new PerftTask(board.snapshot(), depth, Math.min(SPLIT_PLIES, depth - 1)));
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return the pool's parallelism
+     */
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the worker threads once queued work has finished.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Counts one subtree, either directly or by forking one task per move.
+     * A task holds its position as a snapshot and builds its own board only
+     * when it runs, so the copying happens on the worker threads.
+     */
+    private class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final BoardSnapshot position;
+        private final int depth;
+        private final int splitPlies;
+
+        /**
+         * @param position   the position to count from
+         * @param depth      the plies left to search
+         * @param splitPlies how many more plies to split into tasks
+         */
+        PerftTask(BoardSnapshot position, int depth, int splitPlies) {
+            this.position = position;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            Board board = position.toBoard();
+            if (splitPlies <= 0) {
+                return counters.get().perft(board, depth);
+            }
+
+            MoveList moves = new MoveList();
+            board.legalMoves(moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                tasks.add(new PerftTask(board.snapshot(), depth - 1, splitPlies - 1));
+                board.unmakeMove();
+            }
+
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package perft;
+
+import board.Board;
+import board.Move;
+import board.MoveList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * The counts for well-known positions are published, so comparing against
+ * them checks move generation and make/unmake, and the time taken is the
+ * raw throughput of the board code.
+ *
+ * Usage:
+ *   java -cp bin perft.Perft                      run the reference suite
+ *   java -cp bin perft.Perft suite [maxDepth]     run the reference suite
+ *   java -cp bin perft.Perft perft depth [fen]    count nodes from a position
+ *   java -cp bin perft.Perft divide depth [fen]   count nodes per root move
+ *
+ * Add "--threads n" to run suite and perft counts on n cores (see
+ * ParallelPerft); divide always runs on one thread. Add "--hash mb" to cache
+ * subtree counts in a PerftHashTable of that size.
+ */
+public class Perft {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int MAX_DEPTH = 64;
+
+    // One move buffer per ply so counting never allocates
+    private final MoveList[] moveLists = new MoveList[MAX_DEPTH + 1];
+
+    // Shared cache of subtree counts, or null to count every node
+    private final PerftHashTable table;
+
+    /**
+     * Constructs a perft counter with its own move buffers. A counter is not
+     * thread safe; use one per thread.
+     */
+    public Perft() {
+        this(null);
+    }
+
+    /**
+     * Constructs a perft counter that looks up and stores subtree counts in a
+     * hash table. The table may be shared with counters on other threads.
+     *
+     * @param table the subtree count cache, or null for none
+     */
+    public Perft(PerftHashTable table) {
+        this.table = table;
+        for (int i = 0; i <= MAX_DEPTH; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below a position.
+     * The board is left as it was found.
+     *
+     * @param board the position to count from
+     * @param depth the number of plies to search
+     * @return the number of leaf nodes
+     */
+    public long perft(Board board, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (table != null && depth > 1) {
+            long cached = table.probe(board.hashKey(), depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = moveLists[depth];
+        board.legalMoves(moves);
+
+        // Moves at the last ply are legal, so they can be counted without being played
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1);
+            board.unmakeMove();
+        }
+
+        if (table != null) {
+            table.store(board.hashKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each root move and prints one line per move
+     * followed by the total, the usual way to find which move a generator
+     * gets wrong.
+     *
+     * @param board the position to count from
+     * @param depth the number of plies to search (at least 1)
+     * @return the total number of leaf nodes
+     */
+    public long divide(Board board, int depth) {
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            long nodes = perft(board, depth - 1);
+            board.unmakeMove();
+            System.out.println(Move.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println();
+        System.out.println("Moves: " + moves.size());
+        System.out.println("Nodes: " + total);
+        return total;
+    }
+
+    /**
+     * Formats a node count and elapsed time as nodes per second.
+     *
+     * @param nodes the number of nodes counted
+     * @param nanos the elapsed time in nanoseconds
+     * @return the rate, for example "12,345,678 nps"
+     */
+    static String formatRate(long nodes, long nanos) {
+        long nps = nanos > 0 ? (long) (nodes * 1e9 / nanos) : 0;
+        return String.format("%,d nps", nps);
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args the command and its arguments (see the class comment)
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        try {
+            int threads = takeOption(arguments, "--threads", 1);
+            int hashMegabytes = takeOption(arguments, "--hash", 0);
+            PerftHashTable table = hashMegabytes > 0 ? new PerftHashTable(hashMegabytes) : null;
+            String command = arguments.isEmpty() ? "suite" : arguments.get(0);
+
+            switch (command) {
+                case "suite": {
+                    int maxDepth = arguments.size() > 1 ? Integer.parseInt(arguments.get(1))
+                            : PerftSuite.DEFAULT_MAX_DEPTH;
+                    PerftSuite suite = new PerftSuite(threads, table);
+                    boolean passed = suite.run(maxDepth);
+                    suite.shutdown();
+                    if (!passed) {
+                        System.exit(1);
+                    }
+                    break;
+                }
+                case "perft":
+                case "divide": {
+                    if (arguments.size() < 2) {
+                        printUsage();
+                        System.exit(2);
+                    }
+                    int depth = Integer.parseInt(arguments.get(1));
+                    String fen = arguments.size() > 2 ? String.join(" ", arguments.subList(2, arguments.size()))
+                            : START_FEN;
+                    if (depth < 1 || depth > MAX_DEPTH) {
+                        throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH);
+                    }
+                    Board board = new Board(fen);
+
+                    long start = System.nanoTime();
+                    long nodes;
+                    if (command.equals("divide")) {
+                        nodes = new Perft().divide(board, depth);
+                    } else if (threads > 1) {
+                        ParallelPerft parallel = new ParallelPerft(threads, table);
+                        nodes = parallel.perft(board, depth);
+                        parallel.shutdown();
+                    } else {
+                        nodes = new Perft(table).perft(board, depth);
+                    }
+                    long elapsed = System.nanoTime() - start;
+
+                    if (command.equals("perft")) {
+                        System.out.println("Nodes: " + nodes);
+                    }
+                    System.out.printf("Time: %d ms (%s)%n", elapsed / 1_000_000, formatRate(nodes, elapsed));
+                    break;
+                }
+                default:
+                    printUsage();
+                    System.exit(2);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Removes a numeric option such as "--threads 8" from the arguments.
+     *
+     * @param arguments    the command-line arguments, modified in place
+     * @param name         the option name
+     * @param defaultValue the value to use if the option is absent
+     * @return the option's value
+     */
+    private static int takeOption(List<String> arguments, String name, int defaultValue) {
+        int index = arguments.indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        if (index + 1 >= arguments.size()) {
+            throw new IllegalArgumentException(name + " needs a value");
+        }
+        int value = Integer.parseInt(arguments.get(index + 1));
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be at least 1");
+        }
+        arguments.subList(index, index + 2).clear();
+        return value;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: perft.Perft [--threads n] [--hash mb] [suite [maxDepth] | perft depth [fen] | divide depth [fen]]");
+    }
+}
@@ -0,0 +1,89 @@
+package perft;
+
+/**
+ * A fixed-size cache of perft subtree counts, keyed by position hash and
+ * depth, that any number of threads can share without locking.
+ *
+ * Entries live in a flat long array, two longs each: the key XORed with the
+ * data, then the data (node count and depth). A reader recomputes the key
+ * from both words, so an entry half-overwritten by another thread simply
+ * fails to match and is treated as a miss. Newer entries always replace
+ * older ones in the same slot.
+ */
+public class PerftHashTable {
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * Constructs a table using about the given amount of memory, rounded
+     * down to a power-of-two number of entries.
+     *
+     * @param megabytes the table size in MB (at least 1)
+     */
+    public PerftHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Hash size must be at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / 16);
+        // Java arrays top out just under 2^31 longs, and each entry takes two
+        entries = Math.min(entries, 1L << 29);
+        this.table = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+    }
+
+    /**
+     * Looks up the node count of a position searched to a depth.
+     *
+     * @param hash  the position's Zobrist key
+     * @param depth the depth searched
+     * @return the stored node count, or -1 if it is not in the table
+     */
+    public long probe(long hash, int depth) {
+        long key = key(hash, depth);
+        int index = index(key);
+        long data = table[index + 1];
+        if ((table[index] ^ data) == key && (data & DEPTH_MASK) == depth) {
+            return data >>> DEPTH_BITS;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the node count of a position searched to a depth.
+     *
+     * @param hash  the position's Zobrist key
+     * @param depth the depth searched
+     * @param nodes the number of leaf nodes
+     */
+    public void store(long hash, int depth, long nodes) {
+        long key = key(hash, depth);
+        int index = index(key);
+        long data = (nodes << DEPTH_BITS) | depth;
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Gets the number of entries the table can hold.
+     *
+     * @return the entry count
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Mixes the depth into the position key, so the same position at
+     * different depths lands in different slots.
+     */
+    private static long key(long hash, int depth) {
+        return hash ^ (depth * 0x9E3779B97F4A7C15L);
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
@@ -0,0 +1,112 @@
+package perft;
+
+import board.Board;
+
+/**
+ * Runs perft over a set of standard reference positions and compares the
+ * results with their published node counts. Together the positions cover
+ * castling, en passant, promotion, pins and checks, so a mismatch at any
+ * depth points at a move generation bug.
+ */
+public class PerftSuite {
+    public static final int DEFAULT_MAX_DEPTH = 5;
+
+    private static final String[] NAMES = {
+            "Start position",
+            "Kiwipete",
+            "Rook endgame",
+            "Promotions and castling",
+            "Discovered checks"
+    };
+
+    private static final String[] FENS = {
+            Perft.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    // Published node counts, indexed by depth - 1
+    private static final long[][] COUNTS = {
+            { 20, 400, 8902, 197281, 4865609, 119060324, 3195901860L },
+            { 48, 2039, 97862, 4085603, 193690690 },
+            { 14, 191, 2812, 43238, 674624, 11030083 },
+            { 6, 264, 9467, 422333, 15833292 },
+            { 44, 1486, 62379, 2103487, 89941194 }
+    };
+
+    private final Perft perft;
+
+    // Used instead of the serial counter when running on more than one thread
+    private final ParallelPerft parallel;
+
+    /**
+     * Constructs a suite that counts on a single thread.
+     */
+    public PerftSuite() {
+        this(1, null);
+    }
+
+    /**
+     * Constructs a suite that counts on the given number of threads.
+     *
+     * @param threads the number of worker threads (1 for a serial run)
+     * @param table   the subtree count cache, or null to count every node
+     */
+    public PerftSuite(int threads, PerftHashTable table) {
+        this.perft = new Perft(table);
+        this.parallel = threads > 1 ? new ParallelPerft(threads, table) : null;
+    }
+
+    /**
+     * Runs every reference position up to a maximum depth (or as deep as its
+     * published counts go), printing the count, time and nodes per second
+     * for each position and depth.
+     *
+     * @param maxDepth the deepest depth to run
+     * @return true if every count matched
+     */
+    public boolean run(int maxDepth) {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        for (int i = 0; i < FENS.length; i++) {
+            System.out.println(NAMES[i] + ": " + FENS[i]);
+            Board board = new Board(FENS[i]);
+            int depthLimit = Math.min(maxDepth, COUNTS[i].length);
+
+            for (int depth = 1; depth <= depthLimit; depth++) {
+                long expected = COUNTS[i][depth - 1];
+                long start = System.nanoTime();
+                long nodes = parallel != null ? parallel.perft(board, depth) : perft.perft(board, depth);
+                long elapsed = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += elapsed;
+
+                boolean ok = nodes == expected;
+                passed &= ok;
+                System.out.printf("  depth %d: %,15d %s %8d ms  %s%n", depth, nodes,
+                        ok ? "ok  " : "FAIL (expected " + expected + ")",
+                        elapsed / 1_000_000, Perft.formatRate(nodes, elapsed));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Total: %,d nodes in %d ms (%s)%n", totalNodes, totalNanos / 1_000_000,
+                Perft.formatRate(totalNodes, totalNanos));
+        System.out.println(passed ? "All counts match." : "Some counts did not match.");
+        return passed;
+    }
+
+    /**
+     * Stops the worker threads of a multi-threaded suite once queued work has
+     * finished. A serial suite has none, and this does nothing.
+     */
+    public void shutdown() {
+        if (parallel != null) {
+            parallel.shutdown();
+        }
+    }
+}
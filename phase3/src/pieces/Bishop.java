@@ -1,8 +1,8 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Board;
+import board.MoveList;
 
 /**
  * Represents a Bishop chess piece that moves diagonally.
@@ -11,78 +11,42 @@ import java.util.List;
 public class Bishop extends Piece {
 
     /**
-     * Constructs a Bishop with specified color and position.
+     * Constructs a Bishop of the specified color.
      *
-     * @param color    the color of the bishop ("white" or "black")
-     * @param position the initial position of the bishop
+     * @param color the color of the bishop
      */
-    public Bishop(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "B";
+    Bishop(PieceColor color) {
+        super(color, PieceType.BISHOP);
     }
 
     /**
-     * Calculates all possible diagonal moves for the bishop.
-     * The bishop moves in four diagonal directions until blocked.
+     * Generates all diagonal moves for the bishop.
+     * The move set comes from the bishop attack table for the current occupancy,
+     * minus squares held by friendly pieces.
      *
      * @param board the current chess board state
-     * @return list of possible move positions
+     * @param from  the square index the bishop stands on
+     * @param moves the buffer to append to
      */
     @Override
-    public List<Position> possibleMoves(Piece[][] board) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
-
-        // // Up-left diagonal: row decreases, column decreases
-        for (int i = r - 1, j = c - 1; i >= 0 && j >= 0; i--, j--) {
-            if (!addRaySquare(board, moves, i, j))
-                break;
-        }
-
-        // Up-right diagonal: row decreases, column increases
-        for (int i = r - 1, j = c + 1; i >= 0 && j < 8; i--, j++) {
-            if (!addRaySquare(board, moves, i, j))
-                break;
-        }
-
-        // Down-left diagonal: row increases, column decreases
-        for (int i = r + 1, j = c - 1; i < 8 && j >= 0; i++, j--) {
-            if (!addRaySquare(board, moves, i, j))
-                break;
-        }
-
-        // Down-right diagonal: row increases, column increases
-        for (int i = r + 1, j = c + 1; i < 8 && j < 8; i++, j++) {
-            if (!addRaySquare(board, moves, i, j))
-                break;
-        }
-
-        return moves;
+    public void generateMoves(Board board, int from, MoveList moves) {
+        addMoves(board, from, Attacks.bishop(from, board.getOccupiedMask()) & ~friendlyMask(board), moves);
     }
 
     /**
-     * Helper method to add a square to possible moves along a ray.
-     * Stops the ray if a piece is encountered.
+     * Checks if the bishop can reach a square: same diagonal, with every
+     * square in between empty.
      *
-     * @param board the chess board
-     * @param moves list to add valid moves to
-     * @param row   the target row
-     * @param col   the target column
-     * @return true if ray should continue, false if ray should stop
+     * @param board  the current chess board state
+     * @param from   the square index the bishop stands on
+     * @param target the target square index
+     * @return true if the move is valid
      */
-    private boolean addRaySquare(Piece[][] board, List<Position> moves, int row, int col) {
-        Piece at = board[row][col];
-        if (at == null) {
-            // Empty square - add and continue ray
-            moves.add(new Position(row, col));
-            return true;
-        } else {
-            // Occupied square - add only if capturing opponent, then stop ray
-            if (!at.color.equals(this.color)) {
-                moves.add(new Position(row, col));
-            }
-            return false; // Stop the ray
-        }
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int dr = (target >>> 3) - (from >>> 3);
+        int dc = (target & 7) - (from & 7);
+        return dr != 0 && Math.abs(dr) == Math.abs(dc) && isOpenTarget(board, target)
+                && isPathClear(board, from, target);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Bitboards;
+import board.Board;
+import board.Move;
+import board.MoveList;
 
 /**
  * Represents a King chess piece that moves one square in any direction.
@@ -12,58 +14,76 @@ import java.util.List;
 public class King extends Piece {
 
     /**
-     * Constructs a King with specified color and position.
+     * Constructs a King of the specified color.
      *
-     * @param color    the color of the king ("white" or "black")
-     * @param position the initial position of the king
+     * @param color the color of the king
      */
-    public King(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "K";
+    King(PieceColor color) {
+        super(color, PieceType.KING);
     }
 
     /**
-     * Calculates all possible moves for the king (one square in any direction).
+     * Generates all moves for the king (one square in any direction).
      * The king moves to adjacent squares that are empty or contain opponent pieces.
      * Includes castling moves if eligible.
      *
-     * @param squares the current chess board state
-     * @return list of possible move positions
+     * @param board the current chess board state
+     * @param from  the square index the king stands on
+     * @param moves the buffer to append to
      */
     @Override
-    public List<Position> possibleMoves(Piece[][] squares) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
+    public void generateMoves(Board board, int from, MoveList moves) {
+        addMoves(board, from, Attacks.king(from) & ~friendlyMask(board), moves);
 
-        // Check all 8 surrounding squares
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0)
-                    continue; // Skip current position
-
-                int nr = r + dr, nc = c + dc;
-
-                // Check if new position is within board boundaries
-                if (nr < 0 || nr >= 8 || nc < 0 || nc >= 8)
-                    continue;
-
-                Piece target = squares[nr][nc];
-                // Add move if square is empty or contains opponent piece
-                if (target == null || !target.getColor().equals(this.color)) {
-                    moves.add(new Position(nr, nc));
-                }
-            }
+        // Add castling moves while the king is home, the rights are held and the
+        // path to the rook is clear (attacked squares are checked in Board)
+        if (from != homeSquare()) {
+            return;
+        }
+        int r = from >>> 3;
+        long occupied = board.getOccupiedMask();
+        if (board.canCastle(color, true)
+                && (occupied & (Bitboards.bit(Bitboards.square(r, 5)) | Bitboards.bit(Bitboards.square(r, 6)))) == 0) {
+            moves.add(Move.of(from, Bitboards.square(r, 6), Move.CASTLE, 0));
         }
+        if (board.canCastle(color, false)
+                && (occupied & (Bitboards.bit(Bitboards.square(r, 1)) | Bitboards.bit(Bitboards.square(r, 2))
+                        | Bitboards.bit(Bitboards.square(r, 3)))) == 0) {
+            moves.add(Move.of(from, Bitboards.square(r, 2), Move.CASTLE, 0));
+        }
+    }
 
-        // Add castling moves (these will be validated in Board.movePiece)
-        if (c == 4) { // King is in starting position
-            // Kingside castling
-            moves.add(new Position(r, 6));
-            // Queenside castling
-            moves.add(new Position(r, 2));
+    /**
+     * Checks if the king can reach a square: one step in any direction, or
+     * two steps along the home row from its starting square when castling is
+     * still available and the path to the rook is clear (attacked squares are checked in Board).
+     *
+     * @param board  the current chess board state
+     * @param from   the square index the king stands on
+     * @param target the target square index
+     * @return true if the move is valid
+     */
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int dr = Math.abs((target >>> 3) - (from >>> 3));
+        int dc = (target & 7) - (from & 7);
+        if (dr <= 1 && Math.abs(dc) <= 1) {
+            return (dr | dc) != 0 && isOpenTarget(board, target);
         }
+        if (dr != 0 || Math.abs(dc) != 2) {
+            return false;
+        }
+        boolean kingSide = dc > 0;
+        int rookSquare = Bitboards.square(from >>> 3, kingSide ? 7 : 0);
+        return from == homeSquare() && board.canCastle(color, kingSide) && isPathClear(board, from, rookSquare);
+    }
 
-        return moves;
+    /**
+     * Gets the square the king starts on and castles from.
+     *
+     * @return e1 for white, e8 for black
+     */
+    private int homeSquare() {
+        return Bitboards.square(color == PieceColor.WHITE ? 7 : 0, 4);
     }
-}
\ No newline at end of file
+}
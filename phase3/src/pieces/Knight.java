@@ -1,8 +1,8 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Board;
+import board.MoveList;
 
 /**
  * Represents a Knight chess piece that moves in an L-shape.
@@ -11,43 +11,41 @@ import java.util.List;
 public class Knight extends Piece {
 
     /**
-     * Constructs a Knight with specified color and position.
+     * Constructs a Knight of the specified color.
      *
-     * @param color    the color of the knight ("white" or "black")
-     * @param position the initial position of the knight
+     * @param color the color of the knight
      */
-    public Knight(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "N";
+    Knight(PieceColor color) {
+        super(color, PieceType.KNIGHT);
     }
 
     /**
-     * Calculates all possible L-shaped moves for the knight.
+     * Generates all L-shaped moves for the knight.
      * The knight moves two squares in one direction and one square perpendicular.
      *
-     * @param squares the current chess board state
-     * @return list of possible move positions
+     * @param board the current chess board state
+     * @param from  the square index the knight stands on
+     * @param moves the buffer to append to
      */
     @Override
-    public List<Position> possibleMoves(Piece[][] squares) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
-
-        // All 8 possible L-shaped moves
-        int[][] d = { { 2, 1 }, { 2, -1 }, { -2, 1 }, { -2, -1 }, { 1, 2 }, { 1, -2 }, { -1, 2 }, { -1, -2 } }; // Down-left
-        for (int[] v : d) {
-            int nr = r + v[0], nc = c + v[1];
+    public void generateMoves(Board board, int from, MoveList moves) {
+        // Add move if square is empty or contains opponent piece
+        addMoves(board, from, Attacks.knight(from) & ~friendlyMask(board), moves);
+    }
 
-            // Check if new position is within board boundaries
-            if (nr < 0 || nr >= 8 || nc < 0 || nc >= 8)
-                continue;
-            Piece target = squares[nr][nc];
-            // Add move if square is empty or contains opponent piece
-            if (target == null || !target.getColor().equals(this.color)) {
-                moves.add(new Position(nr, nc));
-            }
-        }
-        return moves;
+    /**
+     * Checks if the knight can reach a square: two squares one way and one
+     * square the other.
+     *
+     * @param board  the current chess board state
+     * @param from   the square index the knight stands on
+     * @param target the target square index
+     * @return true if the move is valid
+     */
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int dr = Math.abs((target >>> 3) - (from >>> 3));
+        int dc = Math.abs((target & 7) - (from & 7));
+        return dr * dc == 2 && isOpenTarget(board, target);
     }
 }
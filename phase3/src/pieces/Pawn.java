@@ -1,8 +1,10 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Bitboards;
+import board.Board;
+import board.Move;
+import board.MoveList;
 
 /**
  * Represents a Pawn chess piece with unique movement rules.
@@ -13,71 +15,92 @@ import java.util.List;
 public class Pawn extends Piece {
 
     /**
-     * Constructs a Pawn with specified color and position.
+     * Constructs a Pawn of the specified color.
      *
-     * @param color    the color of the pawn ("white" or "black")
-     * @param position the initial position of the pawn
+     * @param color the color of the pawn
      */
-    public Pawn(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "P";
+    Pawn(PieceColor color) {
+        super(color, PieceType.PAWN);
     }
 
     /**
-     * Calculates all possible moves for the pawn.
-     * Includes forward movement and diagonal captures.
+     * Generates all moves for the pawn.
+     * Includes forward movement, diagonal captures, en passant, and one move per
+     * promotion piece when the pawn reaches the last rank.
      *
      * @param board the current chess board state
-     * @return list of possible move positions
+     * @param from  the square index the pawn stands on
+     * @param moves the buffer to append to
      */
     @Override
-    public List<Position> possibleMoves(Piece[][] board) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
+    public void generateMoves(Board board, int from, MoveList moves) {
+        int r = from >>> 3;
+        int c = from & 7;
+        long occupied = board.getOccupiedMask();
 
         // Determine movement direction based on color
         // White moves up (decreasing row), Black moves down (increasing row)
-        int direction = color.equals("white") ? -1 : 1;
-        int startRow = color.equals("white") ? 6 : 1;
+        boolean white = color == PieceColor.WHITE;
+        int direction = white ? -1 : 1;
+        int startRow = white ? 6 : 1;
 
         // Forward movement (one square)
         int oneR = r + direction;
-        if (inBoard(oneR, c) && board[oneR][c] == null) {
-            moves.add(new Position(oneR, c));
+        if (inBoard(oneR, c) && (occupied & Bitboards.bit(Bitboards.square(oneR, c))) == 0) {
+            addPawnMove(from, Bitboards.square(oneR, c), Move.QUIET, moves);
 
             // Double move from starting position
             int twoR = r + 2 * direction;
-            if (r == startRow && inBoard(twoR, c) && board[twoR][c] == null) {
-                moves.add(new Position(twoR, c));
+            if (r == startRow && (occupied & Bitboards.bit(Bitboards.square(twoR, c))) == 0) {
+                moves.add(Move.of(from, Bitboards.square(twoR, c), Move.DOUBLE_PUSH, 0));
             }
         }
 
-        // Diagonal captures
-        int[] captureColumns = { -1, 1 }; // Left and right diagonals
-        for (int dc : captureColumns) {
-            int nr = r + direction, nc = c + dc;
-            if (inBoard(nr, nc)) {
-                Piece target = board[nr][nc];
-                // Can capture if there's an opponent piece diagonally
-                if (target != null && !target.color.equals(this.color)) {
-                    moves.add(new Position(nr, nc));
-                }
-            }
+        // Diagonal captures: can capture if there's an opponent piece diagonally
+        long captures = Attacks.pawn(from, color.ordinal()) & occupied & ~friendlyMask(board);
+        while (captures != 0) {
+            addPawnMove(from, Long.numberOfTrailingZeros(captures), Move.CAPTURE, moves);
+            captures &= captures - 1;
+        }
+
+        // En passant: capture a pawn that just double-pushed past this one
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant >= 0 && (enPassant >>> 3) == enPassantRow()
+                && (Attacks.pawn(from, color.ordinal()) & Bitboards.bit(enPassant)) != 0) {
+            moves.add(Move.of(from, enPassant, Move.CAPTURE | Move.EN_PASSANT, 0));
         }
+    }
 
-        return moves;
+    /**
+     * Adds a pawn move, expanding it into the four promotion choices when the
+     * target is on the last rank.
+     *
+     * @param from  the starting square index
+     * @param to    the target square index
+     * @param flags the move flags
+     * @param moves the buffer to append to
+     */
+    private void addPawnMove(int from, int to, int flags, MoveList moves) {
+        int lastRank = color == PieceColor.WHITE ? 0 : 7;
+        if ((to >>> 3) == lastRank) {
+            moves.add(Move.of(from, to, flags, Move.PROMOTE_QUEEN));
+            moves.add(Move.of(from, to, flags, Move.PROMOTE_ROOK));
+            moves.add(Move.of(from, to, flags, Move.PROMOTE_BISHOP));
+            moves.add(Move.of(from, to, flags, Move.PROMOTE_KNIGHT));
+        } else {
+            moves.add(Move.of(from, to, flags, 0));
+        }
     }
 
     /**
      * Checks if the pawn has reached the promotion rank.
      *
-     * @param to the target position
+     * @param to the target square index
      * @return true if the pawn should be promoted
      */
-    public boolean isPromotionSquare(Position to) {
-        int lastRank = color.equals("white") ? 0 : 7; // White promotes on rank 1, Black on rank 8
-        return to.getRow() == lastRank;
+    public boolean isPromotionSquare(int to) {
+        int lastRank = color == PieceColor.WHITE ? 0 : 7; // White promotes on rank 1, Black on rank 8
+        return (to >>> 3) == lastRank;
     }
 
     /**
@@ -90,4 +113,47 @@ public class Pawn extends Piece {
     private boolean inBoard(int row, int col) {
         return row >= 0 && row < 8 && col >= 0 && col < 8;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if the pawn can reach a square: one step forward onto an empty
+     * square, two steps from the starting row over empty squares, or one
+     * step diagonally onto an enemy piece or the en passant square.
+     *
+     * @param board  the current chess board state
+     * @param from   the square index the pawn stands on
+     * @param target the target square index
+     * @return true if the move is valid
+     */
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int direction = color == PieceColor.WHITE ? -1 : 1;
+        int startRow = color == PieceColor.WHITE ? 6 : 1;
+        int dr = (target >>> 3) - (from >>> 3);
+        int dc = (target & 7) - (from & 7);
+        long occupied = board.getOccupiedMask();
+        long targetBit = Bitboards.bit(target);
+
+        if (dc == 0) {
+            if (dr == direction) {
+                return (occupied & targetBit) == 0;
+            }
+            return dr == 2 * direction && (from >>> 3) == startRow
+                    && (occupied & targetBit) == 0 && isPathClear(board, from, target);
+        }
+        if (dr != direction || Math.abs(dc) != 1) {
+            return false;
+        }
+        return ((occupied & targetBit) != 0 && isOpenTarget(board, target))
+                || (target == board.getEnPassantSquare() && (target >>> 3) == enPassantRow());
+    }
+
+    /**
+     * Gets the row of the en passant squares this pawn can capture onto:
+     * the square an enemy pawn skipped with its double push.
+     *
+     * @return row 2 (rank 6) for white, row 5 (rank 3) for black
+     */
+    private int enPassantRow() {
+        return color == PieceColor.WHITE ? 2 : 5;
+    }
+}
@@ -1,69 +1,221 @@
 package pieces;
 
+import board.Attacks;
+import board.Bitboards;
+import board.Board;
+import board.Move;
+import board.MoveList;
 import utils.Position;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Abstract class representing a chess piece.
+ * Pieces are stateless flyweights: there is one shared instance per color and
+ * type (see of), and the board alone knows where each one stands, so move
+ * generation and validation take the square as a parameter. Constructors are
+ * package-private, so of is the only way to get a piece and the board may
+ * compare pieces by identity.
  */
 public abstract class Piece {
-    protected String color;
-    protected Position position;
-    protected String symbol;
+    protected final PieceColor color;
+    protected final PieceType type;
+    protected final String symbol;
+
+    // Bitboard index of this piece: color ordinal * Board.BLACK_OFFSET + type ordinal
+    private final int kind;
+
+    // The shared instance of each kind, indexed by kind
+    private static final Piece[] PIECES = new Piece[12];
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.PAWN.ordinal()] = new Pawn(color);
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.KNIGHT.ordinal()] = new Knight(color);
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.BISHOP.ordinal()] = new Bishop(color);
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.ROOK.ordinal()] = new Rook(color);
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.QUEEN.ordinal()] = new Queen(color);
+            PIECES[color.ordinal() * Board.BLACK_OFFSET + PieceType.KING.ordinal()] = new King(color);
+        }
+    }
+
+    // Per-thread buffer for possibleMoves, so only the returned list is allocated
+    private static final ThreadLocal<MoveList> SCRATCH_MOVES = ThreadLocal.withInitial(MoveList::new);
 
     /**
-     * Constructs a Piece object with specified color and position.
+     * Constructs a Piece object with specified color and type.
      *
-     * @param color    the color of the piece ("white" or "black")
-     * @param position the position of the piece
+     * @param color the color of the piece
+     * @param type  the kind of piece
      */
-    public Piece(String color, Position position) {
+    Piece(PieceColor color, PieceType type) {
         this.color = color;
-        this.position = position;
+        this.type = type;
+        this.symbol = (color == PieceColor.WHITE ? "w" : "b") + type.getLetter();
+        this.kind = color.ordinal() * Board.BLACK_OFFSET + type.ordinal();
+    }
+
+    /**
+     * Gets the shared piece of the given color and type.
+     *
+     * @param color the color of the piece
+     * @param type  the kind of piece
+     * @return the shared instance
+     */
+    public static Piece of(PieceColor color, PieceType type) {
+        return PIECES[color.ordinal() * Board.BLACK_OFFSET + type.ordinal()];
     }
 
-    public String getColor() {
+    /**
+     * Gets the shared piece of a bitboard kind.
+     *
+     * @param kind color ordinal * 6 + type ordinal (0-11)
+     * @return the shared instance
+     */
+    public static Piece of(int kind) {
+        return PIECES[kind];
+    }
+
+    public PieceColor getColor() {
         return color;
     }
 
-    public Position getPosition() {
-        return position;
+    public PieceType getType() {
+        return type;
     }
 
-    public void setPosition(Position position) {
-        this.position = position;
+    /**
+     * Gets the bitboard index of this piece's color and type.
+     *
+     * @return color ordinal * 6 + type ordinal (0-11)
+     */
+    public int getKind() {
+        return kind;
     }
 
     public String getSymbol() {
         return symbol;
     }
 
+    /**
+     * Writes all pseudo-legal moves for this piece into a caller-owned buffer
+     * as packed moves (see Move).
+     *
+     * @param board the current board state
+     * @param from  the square index the piece stands on
+     * @param moves the buffer to append to
+     */
+    public abstract void generateMoves(Board board, int from, MoveList moves);
+
     /**
      * Calculates all possible moves for this piece on the given board.
+     * Thin adapter over generateMoves for callers that want positions.
      *
      * @param board the current board state
+     * @param from  the position the piece stands on
      * @return a list of possible moves
      */
-    public abstract List<Position> possibleMoves(Piece[][] board);
+    public List<Position> possibleMoves(Board board, Position from) {
+        MoveList moves = SCRATCH_MOVES.get();
+        moves.clear();
+        generateMoves(board, from.getIndex(), moves);
+        long targets = 0L;
+        for (int i = 0; i < moves.size(); i++) {
+            targets |= Bitboards.bit(Move.to(moves.get(i)));
+        }
+        return toPositions(targets);
+    }
 
     /**
-     * Checks if the move to the target position is valid.
+     * Checks if the move from one position to another is valid.
      *
      * @param board  the current board state
+     * @param from   the position the piece stands on
      * @param target the target position
      * @return true if the move is valid, false otherwise
      */
-    public boolean isValidMove(Piece[][] board, Position target) {
-        return possibleMoves(board).contains(target);
+    public boolean isValidMove(Board board, Position from, Position target) {
+        return isValidMove(board, from.getIndex(), target.getIndex());
+    }
+
+    /**
+     * Checks if this piece can move between two square indices, answered
+     * directly from the move geometry without building a move list.
+     *
+     * @param board  the current board state
+     * @param from   the square index the piece stands on
+     * @param target the target square index (0-63)
+     * @return true if the move is valid, false otherwise
+     */
+    public abstract boolean isValidMove(Board board, int from, int target);
+
+    /**
+     * Checks that a target square is not held by one of this piece's own side.
+     *
+     * @param board  the current board state
+     * @param target the target square index
+     * @return true if the square is empty or holds an enemy piece
+     */
+    protected boolean isOpenTarget(Board board, int target) {
+        return (friendlyMask(board) & Bitboards.bit(target)) == 0;
+    }
+
+    /**
+     * Checks that no piece stands between two squares on a shared rank, file
+     * or diagonal.
+     *
+     * @param board  the current board state
+     * @param from   the square index the piece stands on
+     * @param target the target square index
+     * @return true if the squares in between are all empty
+     */
+    protected boolean isPathClear(Board board, int from, int target) {
+        return (Attacks.between(from, target) & board.getOccupiedMask()) == 0;
+    }
+
+    /**
+     * Gets the squares occupied by this piece's own side.
+     *
+     * @param board the current board state
+     * @return the friendly occupancy mask
+     */
+    protected long friendlyMask(Board board) {
+        return board.getColorMask(color);
+    }
+
+    /**
+     * Appends one move per target square, flagging those that land on an
+     * enemy piece as captures.
+     *
+     * @param board   the current board state
+     * @param from    the square index the piece stands on
+     * @param targets the target squares (friendly squares already removed)
+     * @param moves   the buffer to append to
+     */
+    protected void addMoves(Board board, int from, long targets, MoveList moves) {
+        long occupied = board.getOccupiedMask();
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & Bitboards.bit(to)) != 0 ? Move.CAPTURE : Move.QUIET;
+            moves.add(Move.of(from, to, flags, 0));
+            targets &= targets - 1;
+        }
     }
 
     /**
-     * Moves the piece to the new position.
+     * Converts a mask of target squares into a list of positions.
      *
-     * @param newPosition the new position to move to
+     * @param targets the target squares
+     * @return one position per set bit
      */
-    public void move(Position newPosition) {
-        this.position = newPosition;
+    protected static List<Position> toPositions(long targets) {
+        List<Position> moves = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            moves.add(Position.of(square));
+            targets &= targets - 1;
+        }
+        return moves;
     }
 
     @Override
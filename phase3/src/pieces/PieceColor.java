@@ -0,0 +1,52 @@
+package pieces;
+
+/**
+ * The two sides of a chess game.
+ * The ordinal doubles as the side's index into bitboard and table arrays
+ * (0 for white, 1 for black), so color checks are plain integer compares.
+ */
+public enum PieceColor {
+    WHITE("white"),
+    BLACK("black");
+
+    private final String name;
+
+    PieceColor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the other side.
+     *
+     * @return BLACK for WHITE and WHITE for BLACK
+     */
+    public PieceColor opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
+
+    /**
+     * Looks up a color by its display name.
+     *
+     * @param name "white" or "black" (case-insensitive)
+     * @return the matching color
+     */
+    public static PieceColor fromName(String name) {
+        if (WHITE.name.equalsIgnoreCase(name)) {
+            return WHITE;
+        }
+        if (BLACK.name.equalsIgnoreCase(name)) {
+            return BLACK;
+        }
+        throw new IllegalArgumentException("Unknown color: " + name);
+    }
+
+    /**
+     * Gets the lower-case name used in console and GUI messages.
+     *
+     * @return "white" or "black"
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,75 @@
+package pieces;
+
+/**
+ * The six kinds of chess pieces.
+ * The ordinal is used directly as the piece type index in bitboard arrays
+ * and as the promotion code in packed moves, so the order must not change.
+ */
+public enum PieceType {
+    PAWN("Pawn", 'P', 100),
+    KNIGHT("Knight", 'N', 320),
+    BISHOP("Bishop", 'B', 330),
+    ROOK("Rook", 'R', 500),
+    QUEEN("Queen", 'Q', 900),
+    KING("King", 'K', 20000);
+
+    private final String name;
+    private final char letter;
+    private final int value;
+
+    PieceType(String name, char letter, int value) {
+        this.name = name;
+        this.letter = letter;
+        this.value = value;
+    }
+
+    /**
+     * Gets the display name of the piece type (for example "Knight").
+     *
+     * @return the capitalized name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the letter used in piece symbols (for example 'N' for a knight).
+     *
+     * @return the upper-case piece letter
+     */
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * Gets the material value of the piece type, used by exchange evaluation
+     * and the engine's evaluation. The king's value is nominal, large enough
+     * that no exchange ever gives it up.
+     *
+     * @return the value in centipawns
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Looks up a piece type by its letter, as used in FEN strings.
+     *
+     * @param letter the piece letter in either case (for example 'n' or 'N')
+     * @return the matching piece type
+     */
+    public static PieceType fromLetter(char letter) {
+        char upper = Character.toUpperCase(letter);
+        for (PieceType type : values()) {
+            if (type.letter == upper) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece letter: " + letter);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
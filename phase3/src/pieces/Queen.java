@@ -1,8 +1,8 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Board;
+import board.MoveList;
 
 /**
  * Represents a Queen chess piece - the most powerful piece.
@@ -11,83 +11,42 @@ import java.util.List;
 public class Queen extends Piece {
 
     /**
-     * Constructs a Queen with specified color and position.
+     * Constructs a Queen of the specified color.
      *
-     * @param color    the color of the queen ("white" or "black")
-     * @param position the initial position of the queen
+     * @param color the color of the queen
      */
-    public Queen(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "Q";
+    Queen(PieceColor color) {
+        super(color, PieceType.QUEEN);
     }
 
     /**
-     * Calculates all possible moves for the queen (horizontal, vertical, and
-     * diagonal).
-     * The queen can move any number of squares in straight lines.
+     * Generates all moves for the queen (horizontal, vertical, and diagonal).
+     * The move set is the union of the rook and bishop attack tables for the
+     * current occupancy, minus squares held by friendly pieces.
      *
      * @param board the current chess board state
-     * @return list of possible move positions
+     * @param from  the square index the queen stands on
+     * @param moves the buffer to append to
      */
-
     @Override
-    public List<Position> possibleMoves(Piece[][] board) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
-
-        // Rook-like movement (horizontal and vertical)
-        for (int i = r - 1; i >= 0; i--)
-            if (!addRay(board, moves, i, c))
-                break; // up
-        for (int i = r + 1; i < 8; i++)
-            if (!addRay(board, moves, i, c))
-                break; // down
-        for (int j = c - 1; j >= 0; j--)
-            if (!addRay(board, moves, r, j))
-                break; // left
-        for (int j = c + 1; j < 8; j++)
-            if (!addRay(board, moves, r, j))
-                break; // right
-
-        // // Bishop-like movement (diagonal)
-        for (int i = r - 1, j = c - 1; i >= 0 && j >= 0; i--, j--)
-            if (!addRay(board, moves, i, j))
-                break;
-        for (int i = r - 1, j = c + 1; i >= 0 && j < 8; i--, j++)
-            if (!addRay(board, moves, i, j))
-                break;
-        for (int i = r + 1, j = c - 1; i < 8 && j >= 0; i++, j--)
-            if (!addRay(board, moves, i, j))
-                break;
-        for (int i = r + 1, j = c + 1; i < 8 && j < 8; i++, j++)
-            if (!addRay(board, moves, i, j))
-                break;
-
-        return moves;
+    public void generateMoves(Board board, int from, MoveList moves) {
+        addMoves(board, from, Attacks.queen(from, board.getOccupiedMask()) & ~friendlyMask(board), moves);
     }
 
     /**
-     * Helper method to add a square to possible moves along a ray.
-     * Stops the ray if a piece is encountered.
+     * Checks if the queen can reach a square: same row, column or diagonal,
+     * with every square in between empty.
      *
-     * @param board the chess board
-     * @param moves list to add valid moves to
-     * @param row   the target row
-     * @param col   the target column
-     * @return true if ray should continue, false if ray should stop
+     * @param board  the current chess board state
+     * @param from   the square index the queen stands on
+     * @param target the target square index
+     * @return true if the move is valid
      */
-    private boolean addRay(Piece[][] board, List<Position> moves, int row, int col) {
-        Piece at = board[row][col];
-        if (at == null) {
-            // Empty square - add and continue ray
-            moves.add(new Position(row, col));
-            return true;
-        } else {
-            // Occupied square - add only if capturing opponent, then stop ray
-            if (!at.color.equals(this.color))
-                moves.add(new Position(row, col));
-            return false; // Stop the ray
-        }
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int dr = Math.abs((target >>> 3) - (from >>> 3));
+        int dc = Math.abs((target & 7) - (from & 7));
+        boolean aligned = (dr == 0) != (dc == 0) || (dr != 0 && dr == dc);
+        return aligned && isOpenTarget(board, target) && isPathClear(board, from, target);
     }
 }
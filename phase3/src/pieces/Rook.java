@@ -1,8 +1,8 @@
 package pieces;
 
-import utils.Position;
-import java.util.ArrayList;
-import java.util.List;
+import board.Attacks;
+import board.Board;
+import board.MoveList;
 
 /**
  * Represents a Rook chess piece that moves horizontally and vertically.
@@ -11,75 +11,41 @@ import java.util.List;
 public class Rook extends Piece {
 
     /**
-     * Constructs a Rook with specified color and position.
+     * Constructs a Rook of the specified color.
      *
-     * @param color    the color of the rook ("white" or "black")
-     * @param position the initial position of the rook
+     * @param color the color of the rook
      */
-    public Rook(String color, Position position) {
-        super(color, position);
-        this.symbol = (color.equals("white") ? "w" : "b") + "R";
+    Rook(PieceColor color) {
+        super(color, PieceType.ROOK);
     }
 
     /**
-     * Calculates all possible horizontal and vertical moves for the rook.
-     * The rook moves in four straight directions until blocked.
+     * Generates all horizontal and vertical moves for the rook.
+     * The move set comes from the rook attack table for the current occupancy,
+     * minus squares held by friendly pieces.
      *
      * @param board the current chess board state
-     * @return list of possible move positions
+     * @param from  the square index the rook stands on
+     * @param moves the buffer to append to
      */
     @Override
-    public List<Position> possibleMoves(Piece[][] board) {
-        List<Position> moves = new ArrayList<>();
-        int r = position.getRow();
-        int c = position.getCol();
-
-        // Up: decrease row, same column
-        for (int i = r - 1; i >= 0; i--) {
-            if (!addRaySquare(board, moves, i, c))
-                break;
-        }
-        // Down: increase row, same column
-        for (int i = r + 1; i < 8; i++) {
-            if (!addRaySquare(board, moves, i, c))
-                break;
-        }
-        // Left: same row, decrease column
-        for (int j = c - 1; j >= 0; j--) {
-            if (!addRaySquare(board, moves, r, j))
-                break;
-        }
-        // Right: same row, increase column
-        for (int j = c + 1; j < 8; j++) {
-            if (!addRaySquare(board, moves, r, j))
-                break;
-        }
-
-        return moves;
+    public void generateMoves(Board board, int from, MoveList moves) {
+        addMoves(board, from, Attacks.rook(from, board.getOccupiedMask()) & ~friendlyMask(board), moves);
     }
 
     /**
-     * Helper method to add a square to possible moves along a ray.
-     * Stops the ray if a piece is encountered.
+     * Checks if the rook can reach a square: same row or column, with every
+     * square in between empty.
      *
-     * @param board the chess board
-     * @param moves list to add valid moves to
-     * @param row   the target row
-     * @param col   the target column
-     * @return true if ray should continue, false if ray should stop
+     * @param board  the current chess board state
+     * @param from   the square index the rook stands on
+     * @param target the target square index
+     * @return true if the move is valid
      */
-
-    private boolean addRaySquare(Piece[][] board, List<Position> moves, int row, int col) {
-        Piece at = board[row][col];
-        if (at == null) {
-            // Empty square - add and continue ray
-            moves.add(new Position(row, col));
-            return true;
-        } else {
-            // Occupied square - add only if capturing opponent, then stop ray
-            if (!at.color.equals(this.color))
-                moves.add(new Position(row, col));
-            return false; // Stop the ray
-        }
+    @Override
+    public boolean isValidMove(Board board, int from, int target) {
+        int dr = (target >>> 3) - (from >>> 3);
+        int dc = (target & 7) - (from & 7);
+        return (dr == 0) != (dc == 0) && isOpenTarget(board, target) && isPathClear(board, from, target);
     }
 }
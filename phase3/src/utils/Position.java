@@ -3,17 +3,62 @@ package utils;
 /**
  * Represents a position on the chessboard with row and column coordinates.
  * Converts between array indices and chess notation.
+ * Positions are immutable and canonical: there is exactly one instance per
+ * square, obtained through the static factories, so they are safe to share
+ * and to use as hash keys. Each square also has an index from 0 to 63
+ * (row * 8 + col) for code that works with primitive squares.
  */
-public class Position {
-    private int row;
-    private int col;
+public final class Position {
+    private static final Position[] SQUARES = new Position[64];
 
-    public Position(int row, int col) {
+    static {
+        for (int index = 0; index < 64; index++) {
+            SQUARES[index] = new Position(index >>> 3, index & 7);
+        }
+    }
+
+    private final int row;
+    private final int col;
+    private final int index;
+
+    private Position(int row, int col) {
         this.row = row;
         this.col = col;
+        this.index = row * 8 + col;
+    }
+
+    /**
+     * Gets the canonical position for a row and column.
+     *
+     * @param row the board row (0-7, row 0 is rank 8)
+     * @param col the board column (0-7, col 0 is file A)
+     * @return the shared position instance
+     */
+    public static Position of(int row, int col) {
+        if (row < 0 || row >= 8 || col < 0 || col >= 8) {
+            throw new IllegalArgumentException("Position off the board: " + row + "," + col);
+        }
+        return SQUARES[row * 8 + col];
+    }
+
+    /**
+     * Gets the canonical position for a square index.
+     *
+     * @param index the square index (0-63)
+     * @return the shared position instance
+     */
+    public static Position of(int index) {
+        return SQUARES[index];
     }
 
-    public Position(String chessNotation) {
+    /**
+     * Gets the canonical position for a square in chess notation (for example
+     * "E4").
+     *
+     * @param chessNotation the square name, file letter then rank digit
+     * @return the shared position instance
+     */
+    public static Position fromNotation(String chessNotation) {
         if (chessNotation.length() != 2) {
             throw new IllegalArgumentException("Invalid chess notation: " + chessNotation);
         }
@@ -25,24 +70,19 @@ public class Position {
             throw new IllegalArgumentException("Invalid chess notation: " + chessNotation);
         }
 
-        this.col = colChar - 'A';
-        this.row = '8' - rowChar;
+        return of('8' - rowChar, colChar - 'A');
     }
 
     public int getRow() {
         return row;
     }
 
-    public void setRow(int row) {
-        this.row = row;
-    }
-
     public int getCol() {
         return col;
     }
 
-    public void setCol(int col) {
-        this.col = col;
+    public int getIndex() {
+        return index;
     }
 
     public String toChessNotation() {
@@ -56,11 +96,16 @@ public class Position {
         if (obj == null || getClass() != obj.getClass())
             return false;
         Position position = (Position) obj;
-        return row == position.row && col == position.col;
+        return index == position.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
     }
 
     @Override
     public String toString() {
         return toChessNotation();
     }
-}
\ No newline at end of file
+}